@@ -1,9 +1,20 @@
+import java.nio.LongBuffer;
 import java.util.Scanner;
 public class Main {
 
     // Constants
     static final int PAGE_SIZE = 1024;
 
+    // Fault codes reported by the batch translation API
+    public static final byte TRANSLATION_OK = 0;
+    public static final byte INVALID_SEGMENT = 1;
+    public static final byte PAGE_OUT_OF_RANGE = 2;
+    public static final byte OFFSET_OUT_OF_RANGE = 3;
+
+    // Packed virtual address layout: segment:32 | page:22 | offset:10
+    static final int OFFSET_BITS = 10;
+    static final int PAGE_BITS = 22;
+
     // Segment Table (each segment has its own page table)
     static class Segment {
         int base;
@@ -24,11 +35,24 @@ public class Main {
             new Segment(200, 1, new int[]{13})         // Segment 2
     };
 
+    // TLB in front of the segment table walk, tagged with this process's ASID
+    private Tlb tlb;
+    private int asid;
+
+    public Main() {
+        this(Tlb.setAssociative(16, 4, Tlb.ReplacementPolicy.LRU), 0);
+    }
+
+    public Main(Tlb tlb, int asid) {
+        this.tlb = tlb;
+        this.asid = asid;
+    }
+
     public int[] FindAddress(int segmentNum, int pageNum, int offset) {
         int[] result = new int[1]; // store physical address
 
         try {
-            int frameNum = getFrameNum(segmentNum, pageNum, offset);
+            int frameNum = lookupFrame(segmentNum, pageNum, offset);
             int physicalAddress = frameNum * PAGE_SIZE + offset;
             result[0] = physicalAddress;
 
@@ -41,20 +65,130 @@ public class Main {
         return result;
     }
 
-    private static int getFrameNum(int segmentNum, int pageNum, int offset) throws Exception {
-        if (segmentNum < 0 || segmentNum >= segmentTable.length)
-            throw new Exception("Segmentation Fault: Invalid Segment Number");
+    // The address is checked against the segment table before the TLB is
+    // asked, so an invalid address can never hit another address's entry
+    private int lookupFrame(int segmentNum, int pageNum, int offset) throws Exception {
+        if (tlb != null && checkAddress(segmentNum, pageNum, offset) == TRANSLATION_OK) {
+            int frameNum = tlb.lookup(asid, segmentNum, pageNum);
+            if (frameNum >= 0) {
+                return frameNum;
+            }
+        }
 
-        Segment seg = segmentTable[segmentNum];
+        int frameNum = getFrameNum(segmentNum, pageNum, offset);
+        if (tlb != null) {
+            tlb.insert(asid, segmentNum, pageNum, frameNum);
+        }
+        return frameNum;
+    }
+
+    public Tlb getTlb() {
+        return tlb;
+    }
+
+    public void setAsid(int asid) {
+        this.asid = asid;
+    }
+
+    public int getAsid() {
+        return asid;
+    }
+
+    // Translates count addresses given as parallel arrays. Physical addresses go
+    // to physical[i] (-1 on a fault) and fault codes to faults[i]; nothing is
+    // allocated or printed, so it can be driven with very long traces. Every
+    // array must hold count entries; that is checked before anything is written.
+    public int translateBatch(int[] segments, int[] pages, int[] offsets, int count,
+                              int[] physical, byte[] faults) {
+        int shortest = Math.min(Math.min(segments.length, pages.length),
+                Math.min(offsets.length, Math.min(physical.length, faults.length)));
+        if (count < 0 || count > shortest) {
+            throw new IllegalArgumentException("Batch of " + count + " addresses needs arrays of that length, "
+                    + "the shortest holds " + shortest);
+        }
+        int faultCount = 0;
+        for (int i = 0; i < count; i++) {
+            physical[i] = translateOrFault(segments[i], pages[i], offsets[i], faults, i);
+            if (faults[i] != TRANSLATION_OK) {
+                faultCount++;
+            }
+        }
+        return faultCount;
+    }
+
+    // Same as above for packed virtual addresses, consumed from the buffer's
+    // position up to its limit or until the output arrays are full
+    public int translateBatch(LongBuffer virtualAddresses, int[] physical, byte[] faults) {
+        int count = Math.min(virtualAddresses.remaining(), Math.min(physical.length, faults.length));
+        int faultCount = 0;
+        for (int i = 0; i < count; i++) {
+            long address = virtualAddresses.get();
+            int segmentNum = (int) (address >>> (PAGE_BITS + OFFSET_BITS));
+            int pageNum = (int) (address >>> OFFSET_BITS) & ((1 << PAGE_BITS) - 1);
+            int offset = (int) address & ((1 << OFFSET_BITS) - 1);
+            physical[i] = translateOrFault(segmentNum, pageNum, offset, faults, i);
+            if (faults[i] != TRANSLATION_OK) {
+                faultCount++;
+            }
+        }
+        return faultCount;
+    }
+
+    // Page and offset must fit their fields; masking them would turn an
+    // invalid address into a valid one. The offset field is exactly one page,
+    // so packed addresses never carry an out-of-range offset.
+    public static long packAddress(int segmentNum, int pageNum, int offset) {
+        if (pageNum < 0 || pageNum >= 1 << PAGE_BITS) {
+            throw new IllegalArgumentException("Page " + pageNum + " does not fit in " + PAGE_BITS + " bits");
+        }
+        if (offset < 0 || offset >= 1 << OFFSET_BITS) {
+            throw new IllegalArgumentException("Offset " + offset + " does not fit in " + OFFSET_BITS + " bits");
+        }
+        return ((long) segmentNum << (PAGE_BITS + OFFSET_BITS))
+                | ((long) pageNum << OFFSET_BITS)
+                | offset;
+    }
 
-        if (pageNum >= seg.limit) {
-            throw new Exception("Segmentation Fault: Page exceeds segment limit");
+    private int translateOrFault(int segmentNum, int pageNum, int offset, byte[] faults, int index) {
+        byte fault = checkAddress(segmentNum, pageNum, offset);
+        faults[index] = fault;
+        if (fault != TRANSLATION_OK) {
+            return -1;
         }
+        int frameNum = tlb != null ? tlb.lookup(asid, segmentNum, pageNum) : -1;
+        if (frameNum < 0) {
+            frameNum = segmentTable[segmentNum].pageTable[pageNum];
+            if (tlb != null) {
+                tlb.insert(asid, segmentNum, pageNum, frameNum);
+            }
+        }
+        return frameNum * PAGE_SIZE + offset;
+    }
+
+    private static byte checkAddress(int segmentNum, int pageNum, int offset) {
+        if (segmentNum < 0 || segmentNum >= segmentTable.length) {
+            return INVALID_SEGMENT;
+        }
+        if (pageNum < 0 || pageNum >= segmentTable[segmentNum].limit) {
+            return PAGE_OUT_OF_RANGE;
+        }
+        if (offset < 0 || offset >= PAGE_SIZE) {
+            return OFFSET_OUT_OF_RANGE;
+        }
+        return TRANSLATION_OK;
+    }
 
-        if (offset >= PAGE_SIZE) {
-            throw new Exception("Offset exceeds page size");
+    private static int getFrameNum(int segmentNum, int pageNum, int offset) throws Exception {
+        switch (checkAddress(segmentNum, pageNum, offset)) {
+            case INVALID_SEGMENT:
+                throw new Exception("Segmentation Fault: Invalid Segment Number");
+            case PAGE_OUT_OF_RANGE:
+                throw new Exception("Segmentation Fault: Page exceeds segment limit");
+            case OFFSET_OUT_OF_RANGE:
+                throw new Exception("Offset exceeds page size");
         }
 
+        Segment seg = segmentTable[segmentNum];
         int frameNum = seg.pageTable[pageNum];
         return frameNum;
     }
@@ -73,5 +207,8 @@ public class Main {
         int o = sc.nextInt();
 
         mmu.FindAddress(s, p, o);
+
+        Tlb tlb = mmu.getTlb();
+        System.out.println("TLB: " + tlb.getHits() + " hits, " + tlb.getMisses() + " misses");
     }
 }
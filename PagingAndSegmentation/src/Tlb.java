@@ -0,0 +1,163 @@
+import java.util.Arrays;
+import java.util.Random;
+
+// Translation lookaside buffer for segmented paging. Entries are tagged with
+// an address-space id (ASID) so translations from different processes can
+// live side by side. A fully associative TLB is a single set of all ways.
+public class Tlb {
+
+    public enum ReplacementPolicy {
+        LRU, RANDOM
+    }
+
+    private final int sets;
+    private final int ways;
+    private final ReplacementPolicy policy;
+    private final int[] asids;
+    private final long[] tags;    // packed (segment, page) per entry
+    private final int[] frames;
+    private final boolean[] valid;
+    private final long[] lastUsed; // LRU timestamp per entry
+    private final Random random;
+    private long tick;
+    private long hits;
+    private long misses;
+
+    public Tlb(int sets, int ways, ReplacementPolicy policy) {
+        if (sets <= 0 || ways <= 0) {
+            throw new IllegalArgumentException("TLB needs at least one set and one way");
+        }
+        this.sets = sets;
+        this.ways = ways;
+        this.policy = policy;
+        this.asids = new int[sets * ways];
+        this.tags = new long[sets * ways];
+        this.frames = new int[sets * ways];
+        this.valid = new boolean[sets * ways];
+        this.lastUsed = new long[sets * ways];
+        this.random = new Random(42);
+    }
+
+    public static Tlb setAssociative(int entries, int ways, ReplacementPolicy policy) {
+        if (ways <= 0) {
+            throw new IllegalArgumentException("TLB needs at least one way");
+        }
+        if (entries % ways != 0) {
+            throw new IllegalArgumentException("Entries must be a multiple of the associativity");
+        }
+        return new Tlb(entries / ways, ways, policy);
+    }
+
+    public static Tlb fullyAssociative(int entries, ReplacementPolicy policy) {
+        return new Tlb(1, entries, policy);
+    }
+
+    // Frame number on a hit, -1 on a miss
+    public int lookup(int asid, int segmentNum, int pageNum) {
+        long tag = tag(segmentNum, pageNum);
+        int base = setOf(asid, tag) * ways;
+        for (int i = base; i < base + ways; i++) {
+            if (valid[i] && tags[i] == tag && asids[i] == asid) {
+                lastUsed[i] = ++tick;
+                hits++;
+                return frames[i];
+            }
+        }
+        misses++;
+        return -1;
+    }
+
+    public void insert(int asid, int segmentNum, int pageNum, int frameNum) {
+        long tag = tag(segmentNum, pageNum);
+        int base = setOf(asid, tag) * ways;
+        int slot = -1;
+        for (int i = base; i < base + ways; i++) {
+            if (!valid[i] || (tags[i] == tag && asids[i] == asid)) {
+                slot = i;
+                break;
+            }
+        }
+        if (slot < 0) {
+            slot = policy == ReplacementPolicy.RANDOM ? base + random.nextInt(ways) : leastRecentlyUsed(base);
+        }
+        asids[slot] = asid;
+        tags[slot] = tag;
+        frames[slot] = frameNum;
+        valid[slot] = true;
+        lastUsed[slot] = ++tick;
+    }
+
+    private int leastRecentlyUsed(int base) {
+        int victim = base;
+        for (int i = base + 1; i < base + ways; i++) {
+            if (lastUsed[i] < lastUsed[victim]) {
+                victim = i;
+            }
+        }
+        return victim;
+    }
+
+    // Drops the translations of one address space, e.g. when a process exits
+    public void flush(int asid) {
+        for (int i = 0; i < tags.length; i++) {
+            if (valid[i] && asids[i] == asid) {
+                valid[i] = false;
+            }
+        }
+    }
+
+    public void flushAll() {
+        Arrays.fill(valid, false);
+    }
+
+    public void resetCounters() {
+        hits = 0;
+        misses = 0;
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0.0 : (double) hits / lookups;
+    }
+
+    // Effective access time: every reference pays the TLB lookup and the memory
+    // access, a miss also pays one memory access per table level walked
+    public double getEffectiveAccessTime(double tlbTime, double memoryTime, int walkAccesses) {
+        double hitRatio = getHitRatio();
+        return tlbTime + memoryTime + (1 - hitRatio) * walkAccesses * memoryTime;
+    }
+
+    public int getEntries() {
+        return sets * ways;
+    }
+
+    public int getWays() {
+        return ways;
+    }
+
+    public int getSets() {
+        return sets;
+    }
+
+    // segment:32 | page:32, full width so no two translations share a tag;
+    // the ASID is matched separately
+    private static long tag(int segmentNum, int pageNum) {
+        return ((long) segmentNum << 32) | (pageNum & 0xFFFFFFFFL);
+    }
+
+    private int setOf(int asid, long tag) {
+        if (sets == 1) {
+            return 0;
+        }
+        long mixed = (tag ^ ((long) asid * 0xC2B2AE3D27D4EB4FL)) * 0x9E3779B97F4A7C15L;
+        return (int) ((mixed >>> 32) % sets);
+    }
+}
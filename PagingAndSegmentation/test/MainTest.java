@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.Test;
+
+import java.nio.LongBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainTest {
+    // The example segment table: segment 0 -> frames {4, 7}, 1 -> {2, 5, 9}, 2 -> {13}
+
+    @Test
+    void reportsEveryFaultCode() {
+        Main mmu = new Main();
+        int[] segments = {1, 3, -1, 0, 2, 0, 0};
+        int[] pages = {2, 0, 0, 2, 1, 1, 0};
+        int[] offsets = {5, 0, 0, 0, 0, Main.PAGE_SIZE, -1};
+        int[] physical = new int[7];
+        byte[] faults = new byte[7];
+
+        assertEquals(6, mmu.translateBatch(segments, pages, offsets, 7, physical, faults));
+        assertArrayEquals(new byte[] {Main.TRANSLATION_OK, Main.INVALID_SEGMENT, Main.INVALID_SEGMENT,
+                Main.PAGE_OUT_OF_RANGE, Main.PAGE_OUT_OF_RANGE, Main.OFFSET_OUT_OF_RANGE,
+                Main.OFFSET_OUT_OF_RANGE}, faults);
+        assertArrayEquals(new int[] {9 * Main.PAGE_SIZE + 5, -1, -1, -1, -1, -1, -1}, physical);
+    }
+
+    @Test
+    void rejectsABatchLongerThanAnArrayBeforeWriting() {
+        Main mmu = new Main();
+        int[] physical = {-7, -7};
+        byte[] faults = new byte[3];
+        assertThrows(IllegalArgumentException.class, () -> mmu.translateBatch(
+                new int[3], new int[3], new int[3], 3, physical, faults));
+        assertArrayEquals(new int[] {-7, -7}, physical);
+        assertThrows(IllegalArgumentException.class, () -> mmu.translateBatch(
+                new int[3], new int[3], new int[3], -1, new int[3], faults));
+    }
+
+    @Test
+    void decodesPackedAddresses() {
+        Main mmu = new Main(null, 0);
+        LongBuffer addresses = LongBuffer.wrap(new long[] {
+                Main.packAddress(0, 1, 1023),
+                Main.packAddress(2, 0, 0),
+                Main.packAddress(1, 3, 10),   // page beyond segment 1's limit
+                Main.packAddress(1 << 20, 0, 0),
+                Main.packAddress(1, 1, 7)});
+        int[] physical = new int[4];
+        byte[] faults = new byte[4];
+
+        // Clamped to the output arrays; the last address stays in the buffer
+        assertEquals(2, mmu.translateBatch(addresses, physical, faults));
+        assertEquals(1, addresses.remaining());
+        assertArrayEquals(new int[] {7 * Main.PAGE_SIZE + 1023, 13 * Main.PAGE_SIZE, -1, -1}, physical);
+        assertArrayEquals(new byte[] {Main.TRANSLATION_OK, Main.TRANSLATION_OK,
+                Main.PAGE_OUT_OF_RANGE, Main.INVALID_SEGMENT}, faults);
+    }
+
+    @Test
+    void packAddressRejectsFieldsThatDoNotFit() {
+        assertEquals((1L << 32) | (2L << 10) | 3, Main.packAddress(1, 2, 3));
+        assertThrows(IllegalArgumentException.class, () -> Main.packAddress(0, 1 << 22, 0));
+        assertThrows(IllegalArgumentException.class, () -> Main.packAddress(0, -1, 0));
+        assertThrows(IllegalArgumentException.class, () -> Main.packAddress(0, 0, 1500));
+        assertThrows(IllegalArgumentException.class, () -> Main.packAddress(0, 0, -1));
+    }
+
+    @Test
+    void invalidAddressesDoNotHitTheTlb() {
+        Main mmu = new Main();
+        int[] physical = new int[2];
+        byte[] faults = new byte[2];
+        mmu.translateBatch(new int[] {1, 1}, new int[] {2, 3}, new int[] {0, 0}, 2, physical, faults);
+        assertEquals(Main.PAGE_OUT_OF_RANGE, faults[1]);
+        assertEquals(0, mmu.getTlb().getHits());
+        assertEquals(1, mmu.getTlb().getMisses());
+    }
+}
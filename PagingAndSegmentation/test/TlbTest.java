@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TlbTest {
+    @Test
+    void countsHitsAndMissesOnAKnownSequence() {
+        Tlb tlb = Tlb.fullyAssociative(2, Tlb.ReplacementPolicy.LRU);
+        int[] pages = {0, 1, 0, 2, 1, 0, 2};
+        // 0 miss, 1 miss, 0 hit, 2 miss (evicts 1), 1 miss (evicts 0), 0 miss (evicts 2), 2 miss
+        for (int page : pages) {
+            if (tlb.lookup(0, 0, page) < 0) {
+                tlb.insert(0, 0, page, 100 + page);
+            }
+        }
+        assertEquals(1, tlb.getHits());
+        assertEquals(6, tlb.getMisses());
+        assertEquals(1.0 / 7, tlb.getHitRatio(), 1e-9);
+    }
+
+    @Test
+    void lruKeepsTheRecentlyUsedEntry() {
+        Tlb tlb = Tlb.fullyAssociative(2, Tlb.ReplacementPolicy.LRU);
+        tlb.insert(0, 0, 0, 10);
+        tlb.insert(0, 0, 1, 11);
+        assertEquals(10, tlb.lookup(0, 0, 0));
+        tlb.insert(0, 0, 2, 12);
+        assertEquals(10, tlb.lookup(0, 0, 0));
+        assertEquals(-1, tlb.lookup(0, 0, 1));
+        assertEquals(12, tlb.lookup(0, 0, 2));
+    }
+
+    @Test
+    void randomCanEvictTheRecentlyUsedEntry() {
+        Tlb tlb = Tlb.fullyAssociative(2, Tlb.ReplacementPolicy.RANDOM);
+        tlb.insert(0, 0, 0, 10);
+        boolean evicted = false;
+        for (int page = 1; page < 64 && !evicted; page++) {
+            // Looking entry 0 up each time keeps it the most recently used, so LRU never evicts it
+            tlb.insert(0, 0, page, 10 + page);
+            evicted = tlb.lookup(0, 0, 0) < 0;
+        }
+        assertTrue(evicted, "RANDOM never picked the most recently used entry");
+    }
+
+    @Test
+    void setAssociativeEntriesCompeteOnlyWithinTheirSet() {
+        Tlb shape = Tlb.setAssociative(16, 4, Tlb.ReplacementPolicy.LRU);
+        assertEquals(4, shape.getSets());
+        assertEquals(4, shape.getWays());
+        assertEquals(1, Tlb.fullyAssociative(16, Tlb.ReplacementPolicy.LRU).getSets());
+
+        // Direct mapped: find a page that shares page 0's set
+        int conflicting = -1;
+        for (int page = 1; page < 1000 && conflicting < 0; page++) {
+            Tlb direct = Tlb.setAssociative(4, 1, Tlb.ReplacementPolicy.LRU);
+            direct.insert(0, 0, 0, 10);
+            direct.insert(0, 0, page, 20);
+            if (direct.lookup(0, 0, 0) < 0) {
+                conflicting = page;
+            }
+        }
+        assertTrue(conflicting > 0);
+
+        // The same two pages both fit when every entry is in one set
+        Tlb full = Tlb.fullyAssociative(4, Tlb.ReplacementPolicy.LRU);
+        full.insert(0, 0, 0, 10);
+        full.insert(0, 0, conflicting, 20);
+        assertEquals(10, full.lookup(0, 0, 0));
+        assertEquals(20, full.lookup(0, 0, conflicting));
+    }
+
+    @Test
+    void asidsAreIsolatedAndFlushedSeparately() {
+        Tlb tlb = Tlb.setAssociative(16, 4, Tlb.ReplacementPolicy.LRU);
+        tlb.insert(1, 0, 0, 5);
+        assertEquals(-1, tlb.lookup(2, 0, 0));
+        tlb.insert(2, 0, 0, 9);
+        assertEquals(5, tlb.lookup(1, 0, 0));
+        assertEquals(9, tlb.lookup(2, 0, 0));
+
+        tlb.flush(1);
+        assertEquals(-1, tlb.lookup(1, 0, 0));
+        assertEquals(9, tlb.lookup(2, 0, 0));
+        tlb.flushAll();
+        assertEquals(-1, tlb.lookup(2, 0, 0));
+    }
+
+    @Test
+    void tagsDoNotAliasAbove16Bits() {
+        Tlb tlb = Tlb.fullyAssociative(8, Tlb.ReplacementPolicy.LRU);
+        tlb.insert(0, 0, 0, 3);
+        assertEquals(-1, tlb.lookup(0, 0, 1 << 16));
+        assertEquals(-1, tlb.lookup(0, 1 << 16, 0));
+        assertEquals(-1, tlb.lookup(1 << 16, 0, 0));
+        assertEquals(3, tlb.lookup(0, 0, 0));
+    }
+
+    @Test
+    void rejectsZeroWays() {
+        assertThrows(IllegalArgumentException.class, () -> Tlb.setAssociative(16, 0, Tlb.ReplacementPolicy.LRU));
+        assertThrows(IllegalArgumentException.class, () -> Tlb.setAssociative(16, 3, Tlb.ReplacementPolicy.LRU));
+    }
+}
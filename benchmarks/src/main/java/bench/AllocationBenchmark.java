@@ -0,0 +1,73 @@
+package bench;
+
+import memory.MemoryManager;
+import memory.Process;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Allocate/deallocate throughput: each operation terminates the oldest live
+// process and allocates a new one, keeping memory about half full.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class AllocationBenchmark {
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"4", "16"})
+    public int pageSize; // KB
+
+    @Param({"PAGING", "SEGMENTATION", "BUDDY"})
+    public MemoryManager.MemoryType type;
+
+    private MemoryManager memoryManager;
+    private ArrayDeque<Process> live;
+    private int[] sizes;
+    private int next;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        memoryManager = new MemoryManager(memorySize, pageSize);
+        memoryManager.setMemoryType(type);
+        Random random = new Random(42);
+        sizes = new int[4096];
+        for (int i = 0; i < sizes.length; i++) {
+            sizes[i] = 16 + random.nextInt(241);
+        }
+        live = new ArrayDeque<>();
+        int filled = 0;
+        while (filled < memorySize / 2) {
+            Process process = memoryManager.createProcess("B", nextSize(), 1);
+            if (!memoryManager.allocateMemory(process)) {
+                memoryManager.terminateProcess(process.getProcessId());
+                break;
+            }
+            live.addLast(process);
+            filled += process.getSize();
+        }
+    }
+
+    private int nextSize() {
+        return sizes[next++ & (sizes.length - 1)];
+    }
+
+    @Benchmark
+    public boolean allocateAndFree() {
+        Process oldest = live.pollFirst();
+        if (oldest != null) {
+            memoryManager.terminateProcess(oldest.getProcessId());
+        }
+        Process process = memoryManager.createProcess("B", nextSize(), 1);
+        boolean allocated = memoryManager.allocateMemory(process);
+        if (allocated) {
+            live.addLast(process);
+        } else {
+            memoryManager.terminateProcess(process.getProcessId());
+        }
+        return allocated;
+    }
+}
@@ -0,0 +1,66 @@
+package bench;
+
+import memory.SegmentationManager;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Best-fit segment allocation against memory that is half free, with the
+// given share of the free memory scattered in single-block holes and the
+// rest in one run at the top. Each operation places a segment and frees it.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BestFitBenchmark {
+    private static final int BLOCK_SIZE = 16; // KB
+
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"0", "25", "50", "75"})
+    public int fragmentation; // percent of free memory in scattered holes
+
+    @Param({"BEST_FIT"})
+    public SegmentationManager.PlacementPolicy placement;
+
+    private SegmentationManager segmentationManager;
+    private int sizeCursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        segmentationManager = fragmentedMemory(memorySize, fragmentation);
+        segmentationManager.setPlacementPolicy(placement);
+    }
+
+    // Fills memory with equal blocks, each owned by its own process, then
+    // frees half of memory: the scattered share as every other block from the
+    // bottom, the rest as a contiguous run from the top
+    static SegmentationManager fragmentedMemory(int memorySize, int fragmentation) {
+        SegmentationManager segmentationManager = new SegmentationManager(memorySize);
+        int blocks = memorySize / BLOCK_SIZE;
+        for (int i = 0; i < blocks; i++) {
+            segmentationManager.allocateSegment(i + 1, BLOCK_SIZE, "DATA");
+        }
+        int freeBlocks = blocks / 2;
+        int scattered = freeBlocks * fragmentation / 100;
+        for (int i = 0; i < scattered; i++) {
+            segmentationManager.freeSegment(2 * i + 1, 2 * i * BLOCK_SIZE);
+        }
+        for (int i = blocks - (freeBlocks - scattered); i < blocks; i++) {
+            segmentationManager.freeSegment(i + 1, i * BLOCK_SIZE);
+        }
+        return segmentationManager;
+    }
+
+    @Benchmark
+    public int allocateAndFree() {
+        int size = 1 + (sizeCursor++ & (BLOCK_SIZE - 1));
+        int start = segmentationManager.allocateSegment(0, size, "DATA");
+        if (start >= 0) {
+            segmentationManager.freeSegment(0, start);
+        }
+        return start;
+    }
+}
@@ -0,0 +1,34 @@
+package bench;
+
+import memory.SegmentationManager;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Cost of one compaction per policy, on a fresh layout with every other block
+// free. Requests ask for half the free memory in one piece, which only FULL
+// ignores.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompactionBenchmark {
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"FULL", "PARTIAL", "TWO_FINGER", "SMALLEST_BLOCKERS"})
+    public SegmentationManager.CompactionPolicy policy;
+
+    private SegmentationManager segmentationManager;
+
+    @Setup(Level.Invocation)
+    public void setUp() {
+        segmentationManager = BestFitBenchmark.fragmentedMemory(memorySize, 100);
+    }
+
+    @Benchmark
+    public int compact() {
+        return segmentationManager.compact(policy, segmentationManager.getFreeMemory() / 2);
+    }
+}
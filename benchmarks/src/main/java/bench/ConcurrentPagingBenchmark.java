@@ -0,0 +1,58 @@
+package bench;
+
+import memory.MemoryManager;
+import memory.Process;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Paging allocate/terminate throughput through MemoryManager, the path the
+// workload engine takes, with the frame pool's magazines off (batch 0) and
+// on, for one thread and for four threads sharing a manager. Each operation
+// creates a small process, allocates its pages from free frames and
+// terminates it. Unlike bench.FramePoolBenchmark this includes the mode
+// lock, the process lock and the paging bookkeeping around every frame. The
+// four-thread numbers only mean something on a machine with at least four
+// cores.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ConcurrentPagingBenchmark {
+    @Param({"262144"})
+    public int memorySize; // KB
+
+    @Param({"0", "32"})
+    public int frameCacheBatch;
+
+    @Param({"64"})
+    public int processSize; // KB, 16 pages of 4 KB
+
+    private MemoryManager memoryManager;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        memoryManager = new MemoryManager(memorySize, 4, frameCacheBatch);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneThread() {
+        return allocateAndTerminate();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourThreads() {
+        return allocateAndTerminate();
+    }
+
+    private int allocateAndTerminate() {
+        Process process = memoryManager.createProcess("B", processSize, 1);
+        memoryManager.allocateMemory(process);
+        int pages = process.getAllocatedPageCount();
+        memoryManager.terminateProcess(process.getProcessId());
+        return pages;
+    }
+}
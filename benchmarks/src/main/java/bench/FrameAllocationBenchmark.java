@@ -0,0 +1,64 @@
+package bench;
+
+import memory.MemoryManager;
+import memory.PagingManager;
+import memory.Process;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Paging allocate/free throughput per frame allocation mode: each operation
+// releases a random live process and allocates a new one of 1-8 MB, keeping
+// memory about half full so every page comes from free frames.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FrameAllocationBenchmark {
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"4", "16"})
+    public int pageSize; // KB
+
+    @Param({"SCATTERED", "EXTENT"})
+    public PagingManager.FrameAllocation frameAllocation;
+
+    private MemoryManager memoryManager;
+    private List<Process> live;
+    private Random random;
+    private int maxSize;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        memoryManager = new MemoryManager(memorySize, pageSize);
+        memoryManager.setFrameAllocation(frameAllocation);
+        random = new Random(42);
+        maxSize = Math.min(8192, memorySize / 8);
+        live = new ArrayList<>();
+        int filled = 0;
+        while (filled < memorySize / 2) {
+            Process process = allocate();
+            filled += process.getSize();
+        }
+    }
+
+    private Process allocate() {
+        Process process = memoryManager.createProcess("B", maxSize / 8 + random.nextInt(maxSize - maxSize / 8 + 1), 1);
+        memoryManager.allocateMemory(process);
+        live.add(process);
+        return process;
+    }
+
+    @Benchmark
+    public int allocateAndFree() {
+        int index = random.nextInt(live.size());
+        Process victim = live.get(index);
+        live.set(index, live.get(live.size() - 1));
+        live.remove(live.size() - 1);
+        memoryManager.terminateProcess(victim.getProcessId());
+        return allocate().getAllocatedPageCount();
+    }
+}
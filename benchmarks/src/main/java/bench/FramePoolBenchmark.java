@@ -0,0 +1,68 @@
+package bench;
+
+import memory.FramePool;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Frame allocation throughput with the per-CPU magazines off (batch 0) and
+// on, for one thread and for four threads sharing a pool. Each operation
+// allocates a burst of frames and frees them again, the pattern of
+// short-lived processes. The four-thread numbers only mean something on a
+// machine with at least four cores.
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FramePoolBenchmark {
+    private static final int BURST = 16;
+    private static final AtomicInteger OWNERS = new AtomicInteger();
+
+    @Param({"1048576"})
+    public int totalFrames;
+
+    @Param({"0", "32"})
+    public int batch;
+
+    private FramePool pool;
+
+    @State(Scope.Thread)
+    public static class Burst {
+        final int owner = OWNERS.incrementAndGet();
+        final int[] held = new int[BURST];
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new FramePool(totalFrames, batch);
+    }
+
+    @Benchmark
+    @Threads(1)
+    public int oneThread(Burst burst) {
+        return allocateAndFree(burst);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public int fourThreads(Burst burst) {
+        return allocateAndFree(burst);
+    }
+
+    private int allocateAndFree(Burst burst) {
+        int count = 0;
+        while (count < BURST) {
+            int frame = pool.allocate(burst.owner);
+            if (frame == FramePool.NO_FRAME) {
+                break;
+            }
+            burst.held[count++] = frame;
+        }
+        for (int i = 0; i < count; i++) {
+            pool.free(burst.held[i]);
+        }
+        return count;
+    }
+}
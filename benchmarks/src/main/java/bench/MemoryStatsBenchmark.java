@@ -0,0 +1,54 @@
+package bench;
+
+import memory.MemoryManager;
+import memory.Process;
+import org.openjdk.jmh.annotations.*;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+
+// Cost of getMemoryStats, which the GUI polls on every refresh, with memory
+// mostly full and every other process terminated.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MemoryStatsBenchmark {
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"4", "16"})
+    public int pageSize; // KB
+
+    @Param({"PAGING", "SEGMENTATION", "BUDDY"})
+    public MemoryManager.MemoryType type;
+
+    private MemoryManager memoryManager;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        memoryManager = new MemoryManager(memorySize, pageSize);
+        memoryManager.setMemoryType(type);
+        Random random = new Random(42);
+        List<Process> allocated = new ArrayList<>();
+        // Paging never refuses, it replaces, so stop on free memory as well
+        for (int failures = 0; failures < 16 && memoryManager.getMemoryStats().getFreeMemory() > memorySize / 10; ) {
+            Process process = memoryManager.createProcess("S", 4 + random.nextInt(61), 1);
+            if (memoryManager.allocateMemory(process)) {
+                allocated.add(process);
+            } else {
+                memoryManager.terminateProcess(process.getProcessId());
+                failures++;
+            }
+        }
+        for (int i = 0; i < allocated.size(); i += 2) {
+            memoryManager.terminateProcess(allocated.get(i).getProcessId());
+        }
+    }
+
+    @Benchmark
+    public MemoryManager.MemoryStats memoryStats() {
+        return memoryManager.getMemoryStats();
+    }
+}
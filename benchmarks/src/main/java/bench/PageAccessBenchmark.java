@@ -0,0 +1,62 @@
+package bench;
+
+import memory.MemoryManager;
+import memory.PagingManager;
+import memory.Process;
+import org.openjdk.jmh.annotations.*;
+import java.util.concurrent.TimeUnit;
+
+// Page access and fault latency per replacement algorithm. Hits touch the
+// resident pages of a process filling memory; faults cycle demand-paged
+// references over twice as many pages as there are frames, so every
+// reference evicts.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PageAccessBenchmark {
+    @Param({"16384", "65536"})
+    public int memorySize; // KB
+
+    @Param({"4", "16"})
+    public int pageSize; // KB
+
+    @Param({"FIFO", "LRU", "OPTIMAL", "CLOCK", "SECOND_CHANCE", "CLOCK_PRO"})
+    public PagingManager.ReplacementAlgorithm algorithm;
+
+    private PagingManager pagingManager;
+    private Process resident;
+    private Process faulting;
+    private int residentPages;
+    private int hitCursor;
+    private long faultCursor;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        MemoryManager memoryManager = new MemoryManager(memorySize, pageSize);
+        pagingManager = memoryManager.getPagingManager();
+        pagingManager.setReplacementAlgorithm(algorithm);
+        resident = memoryManager.createProcess("resident", memorySize, 1);
+        memoryManager.allocateMemory(resident);
+        residentPages = resident.getAllocatedPageCount();
+        faulting = memoryManager.createProcess("faulting", 0, 1);
+        memoryManager.allocateMemory(faulting);
+        hitCursor = 0;
+        faultCursor = 0;
+    }
+
+    @Benchmark
+    public boolean access() {
+        int page = hitCursor;
+        hitCursor = page + 1 == residentPages ? 0 : page + 1;
+        return pagingManager.accessProcessPage(resident, page, (page & 3) == 0);
+    }
+
+    @Benchmark
+    public boolean fault() {
+        long page = faultCursor++ % (2L * pagingManager.getTotalPages());
+        return pagingManager.referencePage(faulting, page, false);
+    }
+}
@@ -1,9 +1,17 @@
 import gui.MainFrame;
+import sim.HeadlessRunner;
+import java.util.Arrays;
 import javax.swing.SwingUtilities;
 import javax.swing.UIManager;
 
 public class Main {
     public static void main(String[] args) {
+        // Batch runs never touch Swing, so they work without a display
+        if (args.length > 0 && args[0].equals("--headless")) {
+            HeadlessRunner.main(Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         // Set system look and feel
         try {
             UIManager.setLookAndFeel("com.sun.java.swing.plaf.windows.WindowsLookAndFeel");
@@ -1,6 +1,7 @@
 package gui;
 
 import memory.MemoryManager;
+import memory.PagingManager;
 import memory.Process;
 import utils.*;
 import javax.swing.*;
@@ -9,6 +10,7 @@ import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
 import javax.swing.table.DefaultTableModel;
 import java.util.List;
+import java.util.StringJoiner;
 
 public class MainFrame extends JFrame {
     private MemoryManager memoryManager;
@@ -20,6 +22,7 @@ public class MainFrame extends JFrame {
     private JLabel statusLabel;
     private JRadioButton pagingRadio;
     private JRadioButton segmentationRadio;
+    private JRadioButton buddyRadio;
     private Timer statusUpdateTimer;
     
     public MainFrame() {
@@ -45,15 +48,23 @@ public class MainFrame extends JFrame {
     
     private void initializeMemoryManager() {
         memoryManager = new MemoryManager(Constants.DEFAULT_TOTAL_MEMORY, Constants.DEFAULT_PAGE_SIZE);
+        // Counters and latency histograms for JConsole / VisualVM
+        try {
+            memoryManager.getMetrics().registerMBean("simulator");
+        } catch (javax.management.JMException e) {
+            System.err.println("Could not register memory metrics with JMX: " + e.getMessage());
+        }
     }
     
     private void initializeComponents() {
         // Memory type selection
         pagingRadio = new JRadioButton("Paging", true);
         segmentationRadio = new JRadioButton("Segmentation", false);
+        buddyRadio = new JRadioButton("Buddy System", false);
         ButtonGroup memoryTypeGroup = new ButtonGroup();
         memoryTypeGroup.add(pagingRadio);
         memoryTypeGroup.add(segmentationRadio);
+        memoryTypeGroup.add(buddyRadio);
         
         // Memory visualization panel
         memoryVisualizationPanel = new MemoryVisualizationPanel(memoryManager);
@@ -86,6 +97,7 @@ public class MainFrame extends JFrame {
         topPanel.setBorder(BorderFactory.createTitledBorder("Memory Management Type"));
         topPanel.add(pagingRadio);
         topPanel.add(segmentationRadio);
+        topPanel.add(buddyRadio);
         
         JButton addProcessBtn = new JButton("Add Random Process");
         addProcessBtn.addActionListener(this::addRandomProcess);
@@ -140,6 +152,11 @@ public class MainFrame extends JFrame {
             updateProcessTable();
             segmentationPanel.refresh();
         });
+        
+        buddyRadio.addActionListener(e -> {
+            memoryManager.setMemoryType(MemoryManager.MemoryType.BUDDY);
+            updateProcessTable();
+        });
     }
     
     private void setupMenuBar() {
@@ -359,12 +376,13 @@ public class MainFrame extends JFrame {
     private void showAbout(ActionEvent e) {
         String aboutText = 
             "Memory Management Simulator\n\n" +
-            "This application simulates two memory management techniques:\n" +
+            "This application simulates three memory management techniques:\n" +
             "• Paging: Fixed-size memory blocks with page replacement algorithms\n" +
-            "• Segmentation: Variable-size memory segments with compaction\n\n" +
+            "• Segmentation: Variable-size memory segments with compaction\n" +
+            "• Buddy System: Power-of-two blocks that split and coalesce\n\n" +
             "Features:\n" +
             "• Visual memory representation\n" +
-            "• Multiple page replacement algorithms (FIFO, LRU, Optimal)\n" +
+            "• Multiple page replacement algorithms (" + algorithmNames() + ")\n" +
             "• Memory compaction for segmentation\n" +
             "• Real-time statistics and fragmentation analysis\n" +
             "• Process creation and management\n\n" +
@@ -373,6 +391,15 @@ public class MainFrame extends JFrame {
         JOptionPane.showMessageDialog(this, aboutText, "About", JOptionPane.INFORMATION_MESSAGE);
     }
     
+    // Listed from the enum so the about text cannot miss an algorithm
+    private static String algorithmNames() {
+        StringJoiner names = new StringJoiner(", ");
+        for (PagingManager.ReplacementAlgorithm algorithm : PagingManager.ReplacementAlgorithm.values()) {
+            names.add(algorithm.name());
+        }
+        return names.toString();
+    }
+
     private void updateProcessTable() {
         processTableModel.setRowCount(0);
         
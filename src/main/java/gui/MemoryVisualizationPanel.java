@@ -1,5 +1,6 @@
 package gui;
 
+import memory.BuddyAllocator;
 import memory.MemoryManager;
 import memory.PagingManager;
 import memory.SegmentationManager;
@@ -39,6 +40,9 @@ public class MemoryVisualizationPanel extends JPanel {
             case SEGMENTATION:
                 drawSegmentationVisualization(g2d);
                 break;
+            case BUDDY:
+                drawBuddyVisualization(g2d);
+                break;
         }
         
         drawLegend(g2d);
@@ -112,9 +116,18 @@ public class MemoryVisualizationPanel extends JPanel {
     
     private void drawSegmentationVisualization(Graphics2D g2d) {
         SegmentationManager segManager = memoryManager.getSegmentationManager();
-        List<SegmentationManager.MemorySegment> segments = segManager.getMemorySegments();
-        
-        int totalMemory = segManager.getTotalMemory();
+        drawSegmentLayout(g2d, "Segmentation Memory Layout", 
+                          segManager.getMemorySegments(), segManager.getTotalMemory());
+    }
+    
+    private void drawBuddyVisualization(Graphics2D g2d) {
+        BuddyAllocator buddyAllocator = memoryManager.getBuddyAllocator();
+        drawSegmentLayout(g2d, "Buddy System Memory Layout", 
+                          buddyAllocator.getMemoryLayout(), buddyAllocator.getTotalMemory());
+    }
+    
+    private void drawSegmentLayout(Graphics2D g2d, String title, 
+                                   List<SegmentationManager.MemorySegment> segments, int totalMemory) {
         int memoryWidth = getWidth() - 220; // Leave more space for legend
         int memoryHeight = 300;
         int startX = 50;
@@ -122,7 +135,7 @@ public class MemoryVisualizationPanel extends JPanel {
         
         g2d.setFont(new Font("Arial", Font.BOLD, Constants.TITLE_FONT_SIZE));
         g2d.setColor(Color.BLACK);
-        g2d.drawString("Segmentation Memory Layout", startX, 30);
+        g2d.drawString(title, startX, 30);
         
         // Draw memory bar
         g2d.setColor(Color.BLACK);
@@ -200,7 +213,7 @@ public class MemoryVisualizationPanel extends JPanel {
         int legendY;
         
         // Position legend based on memory management type
-        if (memoryManager.getCurrentType() == MemoryManager.MemoryType.SEGMENTATION) {
+        if (memoryManager.getCurrentType() != MemoryManager.MemoryType.PAGING) {
             legendY = getHeight() - 200; // Bottom area for segmentation
             
             // Draw background for better visibility in segmentation mode
@@ -227,7 +240,7 @@ public class MemoryVisualizationPanel extends JPanel {
         g2d.drawString("Free Memory", legendX + 20, legendY + 12);
         legendY += 20;
         
-        if (memoryManager.getCurrentType() == MemoryManager.MemoryType.SEGMENTATION) {
+        if (memoryManager.getCurrentType() != MemoryManager.MemoryType.PAGING) {
             // Segment types
             g2d.setColor(Constants.CODE_SEGMENT_COLOR);
             g2d.fillRect(legendX, legendY, 15, 15);
@@ -252,9 +265,7 @@ public class MemoryVisualizationPanel extends JPanel {
         }
         
         // Process colors
-        List<Process> activeProcesses = memoryManager.getActiveProcesses();
-        for (int i = 0; i < Math.min(activeProcesses.size(), 5); i++) {
-            Process process = activeProcesses.get(i);
+        for (Process process : memoryManager.getFirstActiveProcesses(5)) {
             g2d.setColor(MemoryUtils.getProcessColor(process.getProcessId()));
             g2d.fillRect(legendX, legendY, 15, 15);
             g2d.setColor(Color.BLACK);
@@ -14,6 +14,7 @@ import java.util.List;
 public class PagingPanel extends JPanel {
     private MemoryManager memoryManager;
     private JComboBox<PagingManager.ReplacementAlgorithm> algorithmCombo;
+    private JComboBox<PagingManager.FrameAllocation> frameAllocationCombo;
     private JTable pageTableView;
     private DefaultTableModel pageTableModel;
     private JLabel statsLabel;
@@ -36,6 +37,8 @@ public class PagingPanel extends JPanel {
         // Algorithm selection
         algorithmCombo = new JComboBox<>(PagingManager.ReplacementAlgorithm.values());
         algorithmCombo.setSelectedItem(memoryManager.getPagingManager().getCurrentAlgorithm());
+        frameAllocationCombo = new JComboBox<>(PagingManager.FrameAllocation.values());
+        frameAllocationCombo.setSelectedItem(memoryManager.getFrameAllocation());
         
         // Page table
         String[] columns = {"Page #", "Status", "Process ID", "Access Count"};
@@ -63,6 +66,8 @@ public class PagingPanel extends JPanel {
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
         controlPanel.add(new JLabel("Replacement Algorithm:"));
         controlPanel.add(algorithmCombo);
+        controlPanel.add(new JLabel("Frames:"));
+        controlPanel.add(frameAllocationCombo);
         
         JButton accessPageBtn = new JButton("Access Page");
         accessPageBtn.addActionListener(this::accessRandomPage);
@@ -92,6 +97,8 @@ public class PagingPanel extends JPanel {
                 (PagingManager.ReplacementAlgorithm) algorithmCombo.getSelectedItem();
             memoryManager.getPagingManager().setReplacementAlgorithm(selected);
         });
+        frameAllocationCombo.addActionListener(e -> memoryManager.setFrameAllocation(
+            (PagingManager.FrameAllocation) frameAllocationCombo.getSelectedItem()));
     }
     
     private void updatePageTable() {
@@ -135,6 +142,10 @@ public class PagingPanel extends JPanel {
         statsText.append("Memory Utilization: ").append(MemoryUtils.formatPercentage(stats.getUtilization())).append("<br>");
         statsText.append("Fragmentation: ").append(MemoryUtils.formatPercentage(stats.getFragmentation())).append("<br>");
         statsText.append("Algorithm: ").append(pagingManager.getCurrentAlgorithm()).append("<br>");
+        if (pagingManager.getFrameAllocation() == PagingManager.FrameAllocation.EXTENT) {
+            statsText.append("Free Extents: ").append(pagingManager.getFreeExtentCount())
+                .append(" (longest ").append(pagingManager.getLongestFreeExtent()).append(" pages)<br>");
+        }
         statsText.append("</html>");
         
         statsLabel.setText(statsText.toString());
@@ -14,6 +14,7 @@ public class SegmentationPanel extends JPanel {
     private MemoryManager memoryManager;
     private JTable segmentTableView;
     private DefaultTableModel segmentTableModel;
+    private JComboBox<SegmentationManager.PlacementPolicy> placementCombo;
     private JLabel statsLabel;
     private Timer updateTimer;
     
@@ -30,6 +31,12 @@ public class SegmentationPanel extends JPanel {
     private void initializeComponents() {
         setBorder(BorderFactory.createTitledBorder("Segmentation Management"));
         
+        // Placement policy selection
+        placementCombo = new JComboBox<>(SegmentationManager.PlacementPolicy.values());
+        placementCombo.setSelectedItem(memoryManager.getPlacementPolicy());
+        placementCombo.addActionListener(e -> memoryManager.setPlacementPolicy(
+            (SegmentationManager.PlacementPolicy) placementCombo.getSelectedItem()));
+        
         // Segment table
         String[] columns = {"Seg #", "Start Address", "End Address", "Size", "Type", "Process ID", "Status"};
         segmentTableModel = new DefaultTableModel(columns, 0) {
@@ -63,6 +70,8 @@ public class SegmentationPanel extends JPanel {
         
         // Top panel with controls
         JPanel controlPanel = new JPanel(new FlowLayout(FlowLayout.LEFT));
+        controlPanel.add(new JLabel("Placement:"));
+        controlPanel.add(placementCombo);
         
         JButton compactBtn = new JButton("Compact Memory");
         compactBtn.addActionListener(this::compactMemory);
@@ -130,25 +139,15 @@ public class SegmentationPanel extends JPanel {
         
         StringBuilder statsText = new StringBuilder();
         statsText.append("<html>");
+        statsText.append("Placement: ").append(segManager.getPlacementPolicy()).append("<br>");
         statsText.append("Total Memory: ").append(MemoryUtils.formatMemorySize(segManager.getTotalMemory())).append("<br>");
         statsText.append("Free Memory: ").append(MemoryUtils.formatMemorySize(segManager.getFreeMemory())).append("<br>");
         statsText.append("Used Memory: ").append(MemoryUtils.formatMemorySize(stats.getUsedMemory())).append("<br>");
-        statsText.append("Total Segments: ").append(segManager.getMemorySegments().size()).append("<br>");
+        statsText.append("Total Segments: ").append(segManager.getSegmentCount()).append("<br>");
         statsText.append("Memory Utilization: ").append(MemoryUtils.formatPercentage(stats.getUtilization())).append("<br>");
         statsText.append("Fragmentation: ").append(MemoryUtils.formatPercentage(stats.getFragmentation())).append("<br>");
-        
-        // Count free segments
-        long freeSegments = segManager.getMemorySegments().stream()
-                .filter(s -> !s.isAllocated())
-                .count();
-        statsText.append("Free Segments: ").append(freeSegments).append("<br>");
-        
-        // Largest free block
-        int largestFree = segManager.getMemorySegments().stream()
-                .filter(s -> !s.isAllocated())
-                .mapToInt(SegmentationManager.MemorySegment::getSize)
-                .max().orElse(0);
-        statsText.append("Largest Free Block: ").append(MemoryUtils.formatMemorySize(largestFree)).append("<br>");
+        statsText.append("Free Segments: ").append(segManager.getFreeBlockCount()).append("<br>");
+        statsText.append("Largest Free Block: ").append(MemoryUtils.formatMemorySize(segManager.getLargestFreeBlock())).append("<br>");
         
         statsText.append("</html>");
         
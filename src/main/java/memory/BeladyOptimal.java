@@ -0,0 +1,99 @@
+package memory;
+
+import java.util.Arrays;
+
+// Belady's MIN over a known page-reference string. A single backward pass
+// records, for every position, where the same page is referenced next, so
+// the farthest-next-use victim can be kept at the top of a max-heap.
+public class BeladyOptimal {
+    public static final int NEVER = Integer.MAX_VALUE;
+
+    private final int[] references;
+    private final int[] nextUse;  // position -> next position of the same page
+    private final int[] firstUse; // page -> first position in the trace
+
+    public BeladyOptimal(int[] references) {
+        this.references = references.clone();
+        this.nextUse = new int[references.length];
+
+        int maxPage = -1;
+        for (int page : references) {
+            if (page < 0) {
+                throw new IllegalArgumentException("Negative page in reference string: " + page);
+            }
+            maxPage = Math.max(maxPage, page);
+        }
+
+        int[] lastSeen = new int[maxPage + 1];
+        Arrays.fill(lastSeen, NEVER);
+        for (int i = references.length - 1; i >= 0; i--) {
+            int page = references[i];
+            nextUse[i] = lastSeen[page];
+            lastSeen[page] = i;
+        }
+        this.firstUse = lastSeen;
+    }
+
+    public int getLength() {
+        return references.length;
+    }
+
+    public int getReference(int position) {
+        return references[position];
+    }
+
+    public int getNextUse(int position) {
+        return nextUse[position];
+    }
+
+    public int getFirstUse(int page) {
+        return page < firstUse.length ? firstUse[page] : NEVER;
+    }
+
+    // Number of faults MIN incurs with the given number of frames
+    public int countFaults(int frameCount) {
+        if (frameCount <= 0) {
+            return references.length;
+        }
+
+        int[] residentNext = new int[firstUse.length];
+        boolean[] resident = new boolean[firstUse.length];
+        LongMaxHeap heap = new LongMaxHeap(frameCount * 2);
+        int residentCount = 0;
+        int faults = 0;
+
+        for (int i = 0; i < references.length; i++) {
+            int page = references[i];
+            if (!resident[page]) {
+                faults++;
+                if (residentCount == frameCount) {
+                    int victim = popVictim(heap, resident, residentNext);
+                    resident[victim] = false;
+                    residentCount--;
+                }
+                resident[page] = true;
+                residentCount++;
+            }
+            residentNext[page] = nextUse[i];
+            heap.push(LongMaxHeap.pack(nextUse[i], page));
+
+            // Every resident page has exactly one live entry; drop stale ones
+            // before they outnumber the live ones
+            if (heap.size() > 2 * frameCount + 64) {
+                heap.removeIf(e -> !resident[LongMaxHeap.id(e)]
+                        || residentNext[LongMaxHeap.id(e)] != LongMaxHeap.priority(e));
+            }
+        }
+        return faults;
+    }
+
+    private static int popVictim(LongMaxHeap heap, boolean[] resident, int[] residentNext) {
+        while (true) {
+            long entry = heap.pop();
+            int page = LongMaxHeap.id(entry);
+            if (resident[page] && residentNext[page] == LongMaxHeap.priority(entry)) {
+                return page;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package memory;
+
+import java.util.*;
+
+// Binary buddy allocator. Free blocks of each order are kept in a per-order
+// bitmap indexed by block number, so splitting and coalescing walk at most
+// one order at a time and touch single bits. Each bitmap has summary levels
+// above it, one bit per non-empty word of the level below, so the lowest
+// free block of an order is found in O(log64 N) words. Requests are rounded up to a
+// power-of-two multiple of the minimum block size; the rounding is reported
+// as internal fragmentation.
+public class BuddyAllocator {
+    public static final int DEFAULT_MIN_BLOCK_SIZE = 1; // KB
+
+    private final int totalMemory;
+    private final int minBlockSize;
+    private final int minShift;
+    private final int maxOrder;
+    private final long[][][] freeBitmaps; // order -> summary levels; level 0 has a bit per block
+    private final int[] freeCounts;     // order -> number of free blocks
+    private final Map<Integer, Block> allocatedBlocks; // start address -> block
+    private int freeMemory;
+    private int requestedMemory;
+
+    private static class Block {
+        final int address;
+        final int order;
+        final int requested;
+        final int processId;
+        final String type;
+
+        Block(int address, int order, int requested, int processId, String type) {
+            this.address = address;
+            this.order = order;
+            this.requested = requested;
+            this.processId = processId;
+            this.type = type;
+        }
+    }
+
+    public BuddyAllocator(int totalMemory, int minBlockSize) {
+        this.minShift = 31 - Integer.numberOfLeadingZeros(Math.max(1, minBlockSize));
+        this.minBlockSize = 1 << minShift;
+        int units = totalMemory >> minShift;
+        this.totalMemory = units << minShift;
+        this.maxOrder = units == 0 ? 0 : 31 - Integer.numberOfLeadingZeros(units);
+        this.freeBitmaps = new long[maxOrder + 1][][];
+        for (int order = 0; order <= maxOrder; order++) {
+            freeBitmaps[order] = newBitmap(units >> order);
+        }
+        this.freeCounts = new int[maxOrder + 1];
+        this.allocatedBlocks = new HashMap<>();
+
+        // Carve memory into the largest aligned power-of-two blocks that fit
+        int unit = 0;
+        while (unit < units) {
+            int order = Math.min(maxOrder, Integer.numberOfTrailingZeros(unit == 0 ? Integer.MIN_VALUE : unit));
+            while ((1 << order) > units - unit) {
+                order--;
+            }
+            markFree(order, unit >> order);
+            unit += 1 << order;
+        }
+        this.freeMemory = this.totalMemory;
+    }
+
+    // Start address of a block large enough for size, or -1
+    public synchronized int allocate(int processId, int size, String type) {
+        if (size <= 0) {
+            return -1;
+        }
+        int order = orderFor(size);
+        if (order > maxOrder) {
+            return -1;
+        }
+
+        int from = order;
+        while (from <= maxOrder && freeCounts[from] == 0) {
+            from++;
+        }
+        if (from > maxOrder) {
+            return -1;
+        }
+
+        int index = firstFree(from);
+        markUsed(from, index);
+        // Split down, handing the upper halves back as free buddies
+        while (from > order) {
+            from--;
+            index <<= 1;
+            markFree(from, index | 1);
+        }
+
+        int address = (index << order) << minShift;
+        allocatedBlocks.put(address, new Block(address, order, size, processId, type));
+        freeMemory -= blockSize(order);
+        requestedMemory += size;
+        return address;
+    }
+
+    public synchronized boolean allocateSegment(Process process, int size, String type) {
+        if (size <= 0) {
+            return true; // nothing to place
+        }
+        int address = allocate(process.getProcessId(), size, type);
+        if (address < 0) {
+            return false;
+        }
+        process.addAllocatedSegment(address);
+        return true;
+    }
+
+    public synchronized void free(int address) {
+        Block block = allocatedBlocks.remove(address);
+        if (block == null) {
+            return;
+        }
+        freeMemory += blockSize(block.order);
+        requestedMemory -= block.requested;
+
+        int order = block.order;
+        int index = (address >> minShift) >> order;
+        // Coalesce while the buddy is free at the same order
+        while (order < maxOrder && isFree(order, index ^ 1)) {
+            markUsed(order, index ^ 1);
+            index >>= 1;
+            order++;
+        }
+        markFree(order, index);
+    }
+
+    public synchronized void deallocateBlocks(Process process) {
+        IntList addresses = process.getAllocatedSegments();
+        for (int i = 0; i < addresses.size(); i++) {
+            free(addresses.get(i));
+        }
+        addresses.clear();
+    }
+
+    private int orderFor(int size) {
+        int units = (size + minBlockSize - 1) >> minShift;
+        return units <= 1 ? 0 : 32 - Integer.numberOfLeadingZeros(units - 1);
+    }
+
+    private int blockSize(int order) {
+        return minBlockSize << order;
+    }
+
+    // Level 0 over the blocks, then summary levels up to a single word
+    private static long[][] newBitmap(int blocks) {
+        List<long[]> levels = new ArrayList<>();
+        int words = Math.max(1, (blocks + 63) >>> 6);
+        levels.add(new long[words]);
+        while (words > 1) {
+            words = (words + 63) >>> 6;
+            levels.add(new long[words]);
+        }
+        return levels.toArray(new long[0][]);
+    }
+
+    // Descends from the top summary word, following the lowest set bit
+    private int firstFree(int order) {
+        long[][] levels = freeBitmaps[order];
+        int index = 0;
+        for (int level = levels.length - 1; level >= 0; level--) {
+            long word = levels[level][index];
+            if (word == 0) {
+                throw new IllegalStateException("Free count out of sync at order " + order);
+            }
+            index = (index << 6) + Long.numberOfTrailingZeros(word);
+        }
+        return index;
+    }
+
+    private boolean isFree(int order, int index) {
+        long[] bitmap = freeBitmaps[order][0];
+        int word = index >>> 6;
+        return word < bitmap.length && (bitmap[word] & (1L << index)) != 0;
+    }
+
+    // Summary bits change only when a word turns non-empty or empty
+    private void markFree(int order, int index) {
+        for (long[] level : freeBitmaps[order]) {
+            int word = index >>> 6;
+            boolean wasEmpty = level[word] == 0;
+            level[word] |= 1L << index;
+            if (!wasEmpty) {
+                break;
+            }
+            index = word;
+        }
+        freeCounts[order]++;
+    }
+
+    private void markUsed(int order, int index) {
+        for (long[] level : freeBitmaps[order]) {
+            int word = index >>> 6;
+            level[word] &= ~(1L << index);
+            if (level[word] != 0) {
+                break;
+            }
+            index = word;
+        }
+        freeCounts[order]--;
+    }
+
+    public int getTotalMemory() {
+        return totalMemory;
+    }
+
+    public synchronized int getFreeMemory() {
+        return freeMemory;
+    }
+
+    public synchronized int getRequestedMemory() {
+        return requestedMemory;
+    }
+
+    public int getMinBlockSize() {
+        return minBlockSize;
+    }
+
+    public synchronized int getLargestFreeBlock() {
+        for (int order = maxOrder; order >= 0; order--) {
+            if (freeCounts[order] > 0) {
+                return blockSize(order);
+            }
+        }
+        return 0;
+    }
+
+    public synchronized int getFreeBlockCount(int order) {
+        return order < 0 || order > maxOrder ? 0 : freeCounts[order];
+    }
+
+    // Share of allocated block space lost to rounding requests up to a power of two
+    public synchronized double getInternalFragmentation() {
+        int allocated = totalMemory - freeMemory;
+        return allocated == 0 ? 0.0 : (double) (allocated - requestedMemory) / allocated * 100;
+    }
+
+    public synchronized double getExternalFragmentation() {
+        return freeMemory == 0 ? 0.0 : (double) (freeMemory - getLargestFreeBlock()) / freeMemory * 100;
+    }
+
+    // Address-ordered view of allocated and free blocks, for display
+    public synchronized List<SegmentationManager.MemorySegment> getMemoryLayout() {
+        List<SegmentationManager.MemorySegment> layout = new ArrayList<>();
+        for (Block block : allocatedBlocks.values()) {
+            layout.add(new SegmentationManager.MemorySegment(
+                block.address, blockSize(block.order), block.processId, block.type));
+        }
+        for (int order = 0; order <= maxOrder; order++) {
+            long[] bitmap = freeBitmaps[order][0];
+            for (int w = 0; w < bitmap.length; w++) {
+                long word = bitmap[w];
+                while (word != 0) {
+                    int index = (w << 6) + Long.numberOfTrailingZeros(word);
+                    word &= word - 1;
+                    layout.add(new SegmentationManager.MemorySegment(
+                        (index << order) << minShift, blockSize(order)));
+                }
+            }
+        }
+        layout.sort(Comparator.comparingInt(SegmentationManager.MemorySegment::getStartAddress));
+        return layout;
+    }
+}
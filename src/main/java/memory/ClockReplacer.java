@@ -0,0 +1,225 @@
+package memory;
+
+import java.util.function.IntPredicate;
+
+// Per-frame reference/modified bits packed into long[] bitsets plus the clock
+// hands used by CLOCK, SECOND_CHANCE (enhanced, modified-bit aware) and a
+// resident-only CLOCK-Pro. Accesses only flip bits; ordering work happens
+// when the hand sweeps on a page fault.
+class ClockReplacer {
+    private final int frames;
+    private final long[] referenced;
+    private final long[] modified;
+    private final long[] hot;     // CLOCK-Pro: frame holds a hot page
+    private final long[] testing; // CLOCK-Pro: cold page still in its test period
+    private int hand;             // CLOCK / SECOND_CHANCE hand, CLOCK-Pro cold hand
+    private int hotHand;
+    private int hotCount;
+    private int coldTarget;
+
+    ClockReplacer(int frames) {
+        int words = (frames + 63) >>> 6;
+        this.frames = frames;
+        this.referenced = new long[words];
+        this.modified = new long[words];
+        this.hot = new long[words];
+        this.testing = new long[words];
+        this.coldTarget = Math.max(1, frames / 4);
+    }
+
+    // A new page was placed in the frame
+    void onLoad(int frame) {
+        if (get(hot, frame)) {
+            hotCount--;
+        }
+        set(referenced, frame);
+        clear(modified, frame);
+        clear(hot, frame);
+        set(testing, frame);
+    }
+
+    void onAccess(int frame, boolean write) {
+        set(referenced, frame);
+        if (write) {
+            set(modified, frame);
+        }
+    }
+
+    void onFree(int frame) {
+        if (get(hot, frame)) {
+            hotCount--;
+        }
+        clear(referenced, frame);
+        clear(modified, frame);
+        clear(hot, frame);
+        clear(testing, frame);
+    }
+
+    boolean isReferenced(int frame) {
+        return get(referenced, frame);
+    }
+
+    boolean isModified(int frame) {
+        return get(modified, frame);
+    }
+
+    int selectVictims(PagingManager.ReplacementAlgorithm algorithm, IntPredicate allocated,
+                      int[] out, int count) {
+        if (frames == 0) {
+            return 0;
+        }
+        long[] chosen = new long[referenced.length];
+        switch (algorithm) {
+            case SECOND_CHANCE:
+                return selectSecondChance(allocated, chosen, out, count);
+            case CLOCK_PRO:
+                return selectClockPro(allocated, chosen, out, count);
+            default:
+                return selectClock(allocated, chosen, out, count);
+        }
+    }
+
+    private int selectClock(IntPredicate allocated, long[] chosen, int[] out, int count) {
+        int found = 0;
+        // Two revolutions clear every reference bit, so a third finds a victim
+        long budget = 3L * frames * count;
+        for (long step = 0; found < count && step < budget; step++) {
+            int frame = advance();
+            if (!allocated.test(frame) || get(chosen, frame)) {
+                continue;
+            }
+            if (get(referenced, frame)) {
+                clear(referenced, frame);
+            } else {
+                set(chosen, frame);
+                out[found++] = frame;
+            }
+        }
+        return found;
+    }
+
+    // Enhanced second chance: prefer (unreferenced, clean), then
+    // (unreferenced, dirty) while clearing reference bits, and repeat
+    private int selectSecondChance(IntPredicate allocated, long[] chosen, int[] out, int count) {
+        int found = 0;
+        while (found < count) {
+            int victim = -1;
+            for (int round = 0; round < 2 && victim < 0; round++) {
+                victim = sweep(allocated, chosen, false);
+                if (victim < 0) {
+                    victim = sweep(allocated, chosen, true);
+                }
+            }
+            if (victim < 0) {
+                break; // no allocated frame left to choose
+            }
+            set(chosen, victim);
+            out[found++] = victim;
+        }
+        return found;
+    }
+
+    private int sweep(IntPredicate allocated, long[] chosen, boolean acceptDirty) {
+        for (int step = 0; step < frames; step++) {
+            int frame = advance();
+            if (!allocated.test(frame) || get(chosen, frame)) {
+                continue;
+            }
+            boolean ref = get(referenced, frame);
+            boolean dirty = get(modified, frame);
+            if (!ref && dirty == acceptDirty) {
+                return frame;
+            }
+            if (acceptDirty) {
+                clear(referenced, frame);
+            }
+        }
+        return -1;
+    }
+
+    // CLOCK-Pro restricted to resident pages. The cold hand evicts cold pages
+    // that were not re-referenced during their test period and promotes the
+    // ones that were; the hot hand demotes hot pages that went unreferenced.
+    // Without non-resident ghost entries the cold target adapts on test-period
+    // hits and expiries instead.
+    private int selectClockPro(IntPredicate allocated, long[] chosen, int[] out, int count) {
+        int found = 0;
+        int sinceProgress = 0;
+        long budget = 4L * frames * (count + 1);
+        for (long step = 0; found < count && step < budget; step++) {
+            if (sinceProgress >= frames) {
+                // A full revolution over nothing but hot pages: make a cold one
+                runHotHand(allocated);
+                sinceProgress = 0;
+            }
+            int frame = advance();
+            sinceProgress++;
+            if (!allocated.test(frame) || get(chosen, frame) || get(hot, frame)) {
+                continue;
+            }
+            if (get(referenced, frame)) {
+                clear(referenced, frame);
+                if (get(testing, frame)) {
+                    clear(testing, frame);
+                    set(hot, frame);
+                    hotCount++;
+                    coldTarget = Math.min(frames - 1, coldTarget + 1);
+                    while (hotCount > frames - coldTarget && runHotHand(allocated)) {
+                        // demote until the hot set fits its share again
+                    }
+                } else {
+                    set(testing, frame);
+                }
+            } else {
+                set(chosen, frame);
+                out[found++] = frame;
+                sinceProgress = 0;
+            }
+        }
+        return found;
+    }
+
+    // Moves the hot hand until one hot page is demoted; returns false if none could be
+    private boolean runHotHand(IntPredicate allocated) {
+        for (int step = 0; step < 2 * frames; step++) {
+            int frame = hotHand;
+            hotHand = hotHand + 1 == frames ? 0 : hotHand + 1;
+            if (!allocated.test(frame)) {
+                continue;
+            }
+            boolean ref = get(referenced, frame);
+            if (get(hot, frame)) {
+                if (ref) {
+                    clear(referenced, frame);
+                } else {
+                    clear(hot, frame);
+                    hotCount--;
+                    return true;
+                }
+            } else if (get(testing, frame) && !ref) {
+                // Test period ran out without a re-reference
+                clear(testing, frame);
+                coldTarget = Math.max(1, coldTarget - 1);
+            }
+        }
+        return false;
+    }
+
+    private int advance() {
+        int frame = hand;
+        hand = hand + 1 == frames ? 0 : hand + 1;
+        return frame;
+    }
+
+    private static boolean get(long[] bits, int index) {
+        return (bits[index >>> 6] & (1L << index)) != 0;
+    }
+
+    private static void set(long[] bits, int index) {
+        bits[index >>> 6] |= 1L << index;
+    }
+
+    private static void clear(long[] bits, int index) {
+        bits[index >>> 6] &= ~(1L << index);
+    }
+}
@@ -0,0 +1,281 @@
+package memory;
+
+import java.util.Arrays;
+
+// Sorted, non-overlapping runs of ints, e.g. the frames a process got from
+// extent allocation. Adjacent runs are merged as they are added, so a
+// process holding a few contiguous runs of frames costs a few nodes however
+// many frames the runs cover. The runs sit in a treap keyed by start, kept
+// in parallel int arrays, where every node also holds the values and runs
+// in its subtree. Adding or removing a value and get(index) are O(log runs)
+// however fragmented the list gets; nothing is shifted or recomputed.
+public class ExtentList {
+    private static final int NIL = 0; // node 0 is an empty sentinel
+
+    private int[] starts = new int[1];
+    private int[] lengths = new int[1];
+    private int[] left = new int[1];
+    private int[] right = new int[1];
+    private int[] priorities = new int[1];
+    private int[] sums = new int[1]; // values in the subtree
+    private int[] runs = new int[1]; // nodes in the subtree
+    private int root = NIL;
+    private int nodeCount = 1; // sentinel included
+    private int freeNodes = NIL; // released nodes, chained through left
+    private int seed = 0x2545F491;
+
+    // Result of split
+    private int splitLeft;
+    private int splitRight;
+
+    // Adds the values start..start+length-1; none of them may be present yet
+    public void add(int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        int end = start + length;
+        split(root, start);
+        int below = splitLeft;
+        int above = splitRight;
+        int previous = last(below);
+        if (previous != NIL && starts[previous] + lengths[previous] == start) {
+            split(below, starts[previous]); // previous is the only node from its start on
+            below = splitLeft;
+            start = starts[previous];
+            release(previous);
+        }
+        int next = first(above);
+        if (next != NIL && starts[next] == end) {
+            split(above, end + 1); // next is the only node up to its start
+            above = splitRight;
+            end += lengths[next];
+            release(next);
+        }
+        root = merge(merge(below, newNode(start, end - start)), above);
+    }
+
+    // Removes one value, splitting its run if it sits inside one
+    public boolean remove(int value) {
+        split(root, value + 1);
+        int below = splitLeft;
+        int above = splitRight;
+        int run = last(below);
+        if (run == NIL || value >= starts[run] + lengths[run]) {
+            root = merge(below, above);
+            return false;
+        }
+        split(below, starts[run]);
+        below = splitLeft;
+        int start = starts[run];
+        int end = start + lengths[run];
+        release(run);
+        if (value > start) {
+            below = merge(below, newNode(start, value - start));
+        }
+        if (value + 1 < end) {
+            below = merge(below, newNode(value + 1, end - value - 1));
+        }
+        root = merge(below, above);
+        return true;
+    }
+
+    public boolean contains(int value) {
+        int run = runAtOrBelow(value);
+        return run != NIL && value < starts[run] + lengths[run];
+    }
+
+    // The index-th value in ascending order
+    public int get(int index) {
+        if (index < 0 || index >= sums[root]) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for size " + sums[root]);
+        }
+        int node = root;
+        while (true) {
+            int before = sums[left[node]];
+            if (index < before) {
+                node = left[node];
+                continue;
+            }
+            index -= before;
+            if (index < lengths[node]) {
+                return starts[node] + index;
+            }
+            index -= lengths[node];
+            node = right[node];
+        }
+    }
+
+    // The run holding the largest start not above value, or NIL
+    private int runAtOrBelow(int value) {
+        int found = NIL;
+        for (int node = root; node != NIL; ) {
+            if (starts[node] <= value) {
+                found = node;
+                node = right[node];
+            } else {
+                node = left[node];
+            }
+        }
+        return found;
+    }
+
+    // The run-th run in ascending order
+    private int runAt(int run) {
+        if (run < 0 || run >= runs[root]) {
+            throw new IndexOutOfBoundsException("Run " + run + " out of bounds for " + runs[root] + " runs");
+        }
+        int node = root;
+        while (true) {
+            int before = runs[left[node]];
+            if (run < before) {
+                node = left[node];
+            } else if (run == before) {
+                return node;
+            } else {
+                run -= before + 1;
+                node = right[node];
+            }
+        }
+    }
+
+    // Splits the subtree at node into runs starting below key (splitLeft)
+    // and the rest (splitRight)
+    private void split(int node, int key) {
+        if (node == NIL) {
+            splitLeft = NIL;
+            splitRight = NIL;
+        } else if (starts[node] < key) {
+            split(right[node], key);
+            right[node] = splitLeft;
+            update(node);
+            splitLeft = node;
+        } else {
+            split(left[node], key);
+            left[node] = splitRight;
+            update(node);
+            splitRight = node;
+        }
+    }
+
+    // Joins two subtrees whose runs all start below / above each other
+    private int merge(int low, int high) {
+        if (low == NIL) {
+            return high;
+        }
+        if (high == NIL) {
+            return low;
+        }
+        if (priorities[low] > priorities[high]) {
+            right[low] = merge(right[low], high);
+            update(low);
+            return low;
+        }
+        left[high] = merge(low, left[high]);
+        update(high);
+        return high;
+    }
+
+    private void update(int node) {
+        sums[node] = sums[left[node]] + lengths[node] + sums[right[node]];
+        runs[node] = runs[left[node]] + 1 + runs[right[node]];
+    }
+
+    private int first(int node) {
+        while (node != NIL && left[node] != NIL) {
+            node = left[node];
+        }
+        return node;
+    }
+
+    private int last(int node) {
+        while (node != NIL && right[node] != NIL) {
+            node = right[node];
+        }
+        return node;
+    }
+
+    private int newNode(int start, int length) {
+        int node = freeNodes;
+        if (node != NIL) {
+            freeNodes = left[node];
+        } else {
+            if (nodeCount == starts.length) {
+                int capacity = Math.max(4, nodeCount + (nodeCount >> 1));
+                starts = Arrays.copyOf(starts, capacity);
+                lengths = Arrays.copyOf(lengths, capacity);
+                left = Arrays.copyOf(left, capacity);
+                right = Arrays.copyOf(right, capacity);
+                priorities = Arrays.copyOf(priorities, capacity);
+                sums = Arrays.copyOf(sums, capacity);
+                runs = Arrays.copyOf(runs, capacity);
+            }
+            node = nodeCount++;
+        }
+        // xorshift: a fixed sequence, so the tree shape is reproducible
+        seed ^= seed << 13;
+        seed ^= seed >>> 17;
+        seed ^= seed << 5;
+        starts[node] = start;
+        lengths[node] = length;
+        left[node] = NIL;
+        right[node] = NIL;
+        priorities[node] = seed;
+        update(node);
+        return node;
+    }
+
+    private void release(int node) {
+        left[node] = freeNodes;
+        freeNodes = node;
+    }
+
+    public int getRunCount() {
+        return runs[root];
+    }
+
+    // O(log runs); walk the runs in order with run = 0 .. getRunCount() - 1
+    public int getStart(int run) {
+        return starts[runAt(run)];
+    }
+
+    public int getLength(int run) {
+        return lengths[runAt(run)];
+    }
+
+    // Number of values in all runs
+    public int size() {
+        return sums[root];
+    }
+
+    public boolean isEmpty() {
+        return root == NIL;
+    }
+
+    public void clear() {
+        root = NIL;
+        nodeCount = 1;
+        freeNodes = NIL;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder("[");
+        appendRuns(root, text);
+        return text.append(']').toString();
+    }
+
+    private void appendRuns(int node, StringBuilder text) {
+        if (node == NIL) {
+            return;
+        }
+        appendRuns(left[node], text);
+        if (text.length() > 1) {
+            text.append(", ");
+        }
+        text.append(starts[node]);
+        if (lengths[node] > 1) {
+            text.append('-').append(starts[node] + lengths[node] - 1);
+        }
+        appendRuns(right[node], text);
+    }
+}
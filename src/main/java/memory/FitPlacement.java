@@ -0,0 +1,66 @@
+package memory;
+
+import java.util.Map;
+import java.util.TreeSet;
+
+// The classic fits, answered from the manager's own free block index:
+// best fit and worst fit take the smallest or largest block by size,
+// first fit scans by address from the bottom and next fit scans from a
+// roving pointer left just past the previous allocation.
+class FitPlacement implements PlacementStrategy {
+    private final SegmentationManager.PlacementPolicy policy;
+    private final FreeBlockIndex freeBlocks;
+    private int rover; // next fit: address the next scan starts from
+
+    FitPlacement(SegmentationManager.PlacementPolicy policy, FreeBlockIndex freeBlocks) {
+        this.policy = policy;
+        this.freeBlocks = freeBlocks;
+    }
+
+    @Override
+    public void blockAdded(SegmentationManager.MemorySegment block) {
+        // the shared index is already up to date
+    }
+
+    @Override
+    public void blockRemoved(SegmentationManager.MemorySegment block) {
+    }
+
+    @Override
+    public SegmentationManager.MemorySegment select(int size) {
+        switch (policy) {
+            case FIRST_FIT:
+                return freeBlocks.firstFitBelow(size, Integer.MAX_VALUE);
+            case NEXT_FIT:
+                return nextFit(size);
+            case WORST_FIT:
+                return worstFit(size);
+            default:
+                return freeBlocks.bestFit(size);
+        }
+    }
+
+    private SegmentationManager.MemorySegment nextFit(int size) {
+        SegmentationManager.MemorySegment block = freeBlocks.firstFitFrom(size, rover);
+        if (block == null) {
+            block = freeBlocks.firstFitBelow(size, rover); // wrap around
+        }
+        if (block != null) {
+            rover = block.getStartAddress() + size;
+        }
+        return block;
+    }
+
+    private SegmentationManager.MemorySegment worstFit(int size) {
+        Map.Entry<Integer, TreeSet<Integer>> largest = freeBlocks.largestEntry();
+        if (largest == null || largest.getKey() < size) {
+            return null;
+        }
+        return freeBlocks.startingAt(largest.getValue().first());
+    }
+
+    @Override
+    public void clear() {
+        rover = 0;
+    }
+}
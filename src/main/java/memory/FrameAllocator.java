@@ -0,0 +1,282 @@
+package memory;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Physical frame allocator: one bit per frame in a free bitmap (1 = free)
+// and an owner table. A million frames cost about 4 MB of owners plus
+// 128 KB of bitmap, with no per-frame objects. Frames are claimed and
+// released with compare-and-set on the bitmap words, so any number of
+// threads can allocate without a lock and a frame is never handed out twice.
+class FrameAllocator {
+    static final int NO_OWNER = -1;
+
+    private final int totalFrames;
+    private final AtomicLongArray freeBits;
+    private final AtomicIntegerArray owners;
+    private final AtomicInteger freeCount;
+    private volatile int searchHint; // a low word that may contain a free bit
+
+    FrameAllocator(int totalFrames) {
+        this.totalFrames = totalFrames;
+        this.freeBits = new AtomicLongArray((totalFrames + 63) >>> 6);
+        this.owners = new AtomicIntegerArray(totalFrames);
+        for (int frame = 0; frame < totalFrames; frame++) {
+            owners.set(frame, NO_OWNER);
+        }
+        for (int frame = 0; frame < totalFrames; frame += 64) {
+            freeBits.set(frame >>> 6, mask(0, Math.min(64, totalFrames - frame)));
+        }
+        this.freeCount = new AtomicInteger(totalFrames);
+        this.searchHint = 0;
+    }
+
+    // Lowest free frame at or above the search hint, or -1 when memory is full
+    int allocate(int owner) {
+        int hint = searchHint;
+        int frame = claimFrom(hint, freeBits.length(), owner);
+        if (frame < 0 && hint > 0) {
+            // the hint raced past a concurrent free
+            frame = claimFrom(0, hint, owner);
+        }
+        return frame;
+    }
+
+    private int claimFrom(int fromWord, int toWord, int owner) {
+        for (int w = fromWord; w < toWord; w++) {
+            long word;
+            while ((word = freeBits.get(w)) != 0) {
+                long bit = word & -word;
+                if (freeBits.compareAndSet(w, word, word & ~bit)) {
+                    int frame = (w << 6) + Long.numberOfTrailingZeros(bit);
+                    owners.set(frame, owner);
+                    freeCount.decrementAndGet();
+                    searchHint = w;
+                    return frame;
+                }
+            }
+        }
+        return -1;
+    }
+
+    // Claims up to max free frames for a cache, several per compare-and-set,
+    // and stores them in out in descending order so popping from the end
+    // yields the lowest frame first. Claimed frames keep NO_OWNER until handed
+    // out. Returns the number claimed.
+    int claimBatch(int[] out, int max) {
+        int claimed = 0;
+        int hint = searchHint;
+        for (int pass = 0; pass < 2 && claimed < max; pass++) {
+            int from = pass == 0 ? hint : 0;
+            int to = pass == 0 ? freeBits.length() : hint;
+            for (int w = from; w < to && claimed < max; w++) {
+                long word;
+                long taken;
+                do {
+                    word = freeBits.get(w);
+                    taken = word;
+                    // keep only the lowest (max - claimed) free bits
+                    for (int extra = Long.bitCount(word) - (max - claimed); extra > 0; extra--) {
+                        taken &= ~Long.highestOneBit(taken);
+                    }
+                } while (taken != 0 && !freeBits.compareAndSet(w, word, word & ~taken));
+                if (taken != 0) {
+                    freeCount.addAndGet(-Long.bitCount(taken));
+                    searchHint = w;
+                    for (long bits = taken; bits != 0; bits &= bits - 1) {
+                        out[claimed++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                    }
+                }
+            }
+        }
+        // lowest frame last
+        for (int i = 0, j = claimed - 1; i < j; i++, j--) {
+            int frame = out[i];
+            out[i] = out[j];
+            out[j] = frame;
+        }
+        return claimed;
+    }
+
+    // First run of length contiguous free frames; returns its start or -1.
+    // Candidate runs are claimed word by word and given back if another
+    // thread takes part of one first.
+    int allocateRun(int length, int owner) {
+        while (length > 0 && length <= freeCount.get()) {
+            int start = findRun(length);
+            if (start < 0) {
+                return -1;
+            }
+            if (claimRun(start, length, owner)) {
+                return start;
+            }
+        }
+        return -1;
+    }
+
+    // Claims exactly [start, start + length) for owner if every frame in it
+    // is free; otherwise claims nothing and returns false
+    boolean claimRun(int start, int length, int owner) {
+        if (!claimRange(start, length)) {
+            return false;
+        }
+        for (int frame = start; frame < start + length; frame++) {
+            owners.set(frame, owner);
+        }
+        freeCount.addAndGet(-length);
+        return true;
+    }
+
+    private int findRun(int length) {
+        int runStart = -1;
+        int runLength = 0;
+        for (int w = 0; w < freeBits.length(); w++) {
+            long word = freeBits.get(w);
+            if (word == -1L) {
+                if (runStart < 0) {
+                    runStart = w << 6;
+                }
+                runLength += 64;
+                if (runLength >= length) {
+                    return runStart;
+                }
+            } else if (word == 0) {
+                runStart = -1;
+                runLength = 0;
+            } else {
+                int bit = 0;
+                while (bit < 64) {
+                    long shifted = word >>> bit;
+                    if ((shifted & 1L) == 0) {
+                        // skip the used frames
+                        if (shifted == 0) {
+                            bit = 64;
+                        } else {
+                            bit += Long.numberOfTrailingZeros(shifted);
+                        }
+                        runStart = -1;
+                        runLength = 0;
+                    } else {
+                        int ones = Math.min(Long.numberOfTrailingZeros(~shifted), 64 - bit);
+                        if (runStart < 0) {
+                            runStart = (w << 6) + bit;
+                        }
+                        runLength += ones;
+                        bit += ones;
+                        if (runLength >= length) {
+                            return runStart;
+                        }
+                    }
+                }
+            }
+        }
+        return -1;
+    }
+
+    void free(int frame) {
+        int w = frame >>> 6;
+        long bit = 1L << frame;
+        if ((freeBits.get(w) & bit) != 0) {
+            return;
+        }
+        // Clear the owner before the frame can be claimed again
+        owners.set(frame, NO_OWNER);
+        long previous = freeBits.getAndUpdate(w, word -> word | bit);
+        if ((previous & bit) == 0) {
+            freeCount.incrementAndGet();
+        }
+        if (w < searchHint) {
+            searchHint = w;
+        }
+    }
+
+    // Frees [start, start + length) a word at a time; frames in it that
+    // are already free stay free and are not counted twice
+    void freeRun(int start, int length) {
+        for (int frame = start; frame < start + length; frame++) {
+            owners.set(frame, NO_OWNER);
+        }
+        int freed = 0;
+        for (int frame = start; frame < start + length; ) {
+            int bit = frame & 63;
+            int span = Math.min(64 - bit, start + length - frame);
+            long mask = mask(bit, span);
+            long previous = freeBits.getAndUpdate(frame >>> 6, word -> word | mask);
+            freed += Long.bitCount(~previous & mask);
+            frame += span;
+        }
+        freeCount.addAndGet(freed);
+        if (length > 0 && (start >>> 6) < searchHint) {
+            searchHint = start >>> 6;
+        }
+    }
+
+    // Clears the frame's owner in one step; true only for the caller that
+    // found an owner to clear, so concurrent frees of a frame see one winner
+    boolean clearOwner(int frame) {
+        int owner;
+        do {
+            owner = owners.get(frame);
+            if (owner == NO_OWNER) {
+                return false;
+            }
+        } while (!owners.compareAndSet(frame, owner, NO_OWNER));
+        return true;
+    }
+
+    void setOwner(int frame, int owner) {
+        owners.set(frame, owner);
+    }
+
+    int getOwner(int frame) {
+        return owners.get(frame);
+    }
+
+    boolean isAllocated(int frame) {
+        return (freeBits.get(frame >>> 6) & (1L << frame)) == 0;
+    }
+
+    int getFreeCount() {
+        return freeCount.get();
+    }
+
+    int getTotalFrames() {
+        return totalFrames;
+    }
+
+    // Clears the free bits of [start, start + length) if all of them are
+    // still set; otherwise leaves the bitmap as it was and returns false
+    private boolean claimRange(int start, int length) {
+        for (int frame = start; frame < start + length; ) {
+            int bit = frame & 63;
+            int span = Math.min(64 - bit, start + length - frame);
+            long mask = mask(bit, span);
+            int w = frame >>> 6;
+            long word;
+            do {
+                word = freeBits.get(w);
+                if ((word & mask) != mask) {
+                    releaseRange(start, frame - start);
+                    return false;
+                }
+            } while (!freeBits.compareAndSet(w, word, word & ~mask));
+            frame += span;
+        }
+        return true;
+    }
+
+    private void releaseRange(int start, int length) {
+        for (int frame = start; frame < start + length; ) {
+            int bit = frame & 63;
+            int span = Math.min(64 - bit, start + length - frame);
+            long mask = mask(bit, span);
+            freeBits.getAndUpdate(frame >>> 6, word -> word | mask);
+            frame += span;
+        }
+    }
+
+    private static long mask(int bit, int span) {
+        return span == 64 ? -1L : ((1L << span) - 1) << bit;
+    }
+}
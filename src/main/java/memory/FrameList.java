@@ -0,0 +1,97 @@
+package memory;
+
+import java.util.Arrays;
+
+// Intrusive doubly linked list of frame numbers kept in primitive arrays.
+// Every frame has one prev/next slot, so add, remove and move-to-tail are O(1)
+// and no node objects are allocated. Head is the oldest entry, tail the newest.
+class FrameList {
+    private static final int NIL = -1;
+
+    private final int[] prev;
+    private final int[] next;
+    private final boolean[] linked;
+    private int head;
+    private int tail;
+    private int size;
+
+    FrameList(int capacity) {
+        this.prev = new int[capacity];
+        this.next = new int[capacity];
+        this.linked = new boolean[capacity];
+        clear();
+    }
+
+    void addLast(int frame) {
+        if (linked[frame]) {
+            unlink(frame);
+        }
+        prev[frame] = tail;
+        next[frame] = NIL;
+        if (tail == NIL) {
+            head = frame;
+        } else {
+            next[tail] = frame;
+        }
+        tail = frame;
+        linked[frame] = true;
+        size++;
+    }
+
+    void moveToLast(int frame) {
+        if (linked[frame] && tail != frame) {
+            addLast(frame);
+        }
+    }
+
+    void remove(int frame) {
+        if (linked[frame]) {
+            unlink(frame);
+        }
+    }
+
+    private void unlink(int frame) {
+        int p = prev[frame];
+        int n = next[frame];
+        if (p == NIL) {
+            head = n;
+        } else {
+            next[p] = n;
+        }
+        if (n == NIL) {
+            tail = p;
+        } else {
+            prev[n] = p;
+        }
+        prev[frame] = NIL;
+        next[frame] = NIL;
+        linked[frame] = false;
+        size--;
+    }
+
+    boolean contains(int frame) {
+        return linked[frame];
+    }
+
+    // Oldest first; fills up to out.length frames and returns how many were written
+    int peekOldest(int[] out) {
+        int count = 0;
+        for (int frame = head; frame != NIL && count < out.length; frame = next[frame]) {
+            out[count++] = frame;
+        }
+        return count;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        Arrays.fill(prev, NIL);
+        Arrays.fill(next, NIL);
+        Arrays.fill(linked, false);
+        head = NIL;
+        tail = NIL;
+        size = 0;
+    }
+}
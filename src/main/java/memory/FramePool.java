@@ -0,0 +1,178 @@
+package memory;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+// Physical frames for the paging manager, with per-CPU style magazines in
+// front of the shared bitmap, like Linux per-cpu pagesets. Threads are spread
+// over a few magazines by identity hash; a magazine refills a whole batch
+// from the bitmap when it runs dry and drains a batch back when it grows past
+// two batches, so most allocations and frees touch only the magazine's own
+// lock and cache lines. Frames parked in magazines count as free. When the
+// bitmap is exhausted, allocation takes frames from the other magazines
+// before giving up. The magazines only pay off with several threads
+// allocating at once and cost some single-thread throughput, so PagingManager
+// turns them on only when given a frame cache batch, as the concurrent
+// workload engine does; bench.FramePoolBenchmark and
+// bench.ConcurrentPagingBenchmark measure both.
+public class FramePool {
+    public static final int NO_FRAME = -1;
+    public static final int DEFAULT_BATCH = 32;
+    private static final int MIN_BATCH = 8;
+
+    private final FrameAllocator frames;
+    private final Magazine[] magazines; // empty when caching is off
+    private final int batch;
+
+    private static class Magazine {
+        final ReentrantLock lock = new ReentrantLock();
+        final int[] frames;
+        volatile int count;
+
+        Magazine(int batch) {
+            this.frames = new int[2 * batch];
+        }
+    }
+
+    // batch 0 turns the magazines off; a batch that would let the magazines
+    // hold more than a quarter of memory is shrunk, or turns them off too
+    public FramePool(int totalFrames, int batch) {
+        this.frames = new FrameAllocator(totalFrames);
+        int stripes = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) * 2;
+        int fitting = Math.min(batch, totalFrames / (stripes * 8));
+        this.batch = fitting >= MIN_BATCH ? fitting : 0;
+        this.magazines = new Magazine[this.batch == 0 ? 0 : stripes];
+        for (int i = 0; i < magazines.length; i++) {
+            magazines[i] = new Magazine(this.batch);
+        }
+    }
+
+    // A free frame now owned by owner, or NO_FRAME when memory is full
+    public int allocate(int owner) {
+        if (magazines.length == 0) {
+            return frames.allocate(owner);
+        }
+        Magazine local = local();
+        int frame = take(local, true);
+        for (int i = 0; frame == NO_FRAME && i < magazines.length; i++) {
+            if (magazines[i] != local) {
+                frame = take(magazines[i], false);
+            }
+        }
+        if (frame != NO_FRAME) {
+            frames.setOwner(frame, owner);
+        }
+        return frame;
+    }
+
+    private int take(Magazine magazine, boolean refill) {
+        magazine.lock.lock();
+        try {
+            if (magazine.count == 0 && refill) {
+                magazine.count = frames.claimBatch(magazine.frames, batch);
+            }
+            return magazine.count == 0 ? NO_FRAME : magazine.frames[--magazine.count];
+        } finally {
+            magazine.lock.unlock();
+        }
+    }
+
+    public void free(int frame) {
+        if (magazines.length == 0) {
+            frames.free(frame);
+            return;
+        }
+        // Clearing the owner is what parks the frame; of two racing frees
+        // only the one that clears it puts the frame in a magazine
+        if (!frames.isAllocated(frame) || !frames.clearOwner(frame)) {
+            return; // free, or already parked in a magazine
+        }
+        Magazine magazine = local();
+        magazine.lock.lock();
+        try {
+            if (magazine.count == magazine.frames.length) {
+                // Hand the oldest batch back to the bitmap
+                for (int i = 0; i < batch; i++) {
+                    frames.free(magazine.frames[i]);
+                }
+                System.arraycopy(magazine.frames, batch, magazine.frames, 0, magazine.count - batch);
+                magazine.count -= batch;
+            }
+            magazine.frames[magazine.count++] = frame;
+        } finally {
+            magazine.lock.unlock();
+        }
+    }
+
+    // Claims the given run straight from the bitmap, bypassing the
+    // magazines; false if any frame in it is taken
+    public boolean claimRun(int start, int length, int owner) {
+        return frames.claimRun(start, length, owner);
+    }
+
+    // Returns a run straight to the bitmap, bypassing the magazines
+    public void freeRun(int start, int length) {
+        frames.freeRun(start, length);
+    }
+
+    // Returns every parked frame to the bitmap
+    public void drain() {
+        for (Magazine magazine : magazines) {
+            magazine.lock.lock();
+            try {
+                for (int i = 0; i < magazine.count; i++) {
+                    frames.free(magazine.frames[i]);
+                }
+                magazine.count = 0;
+            } finally {
+                magazine.lock.unlock();
+            }
+        }
+    }
+
+    private Magazine local() {
+        int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        return magazines[(hash ^ (hash >>> 16)) & (magazines.length - 1)];
+    }
+
+    public void setOwner(int frame, int owner) {
+        frames.setOwner(frame, owner);
+    }
+
+    // Owner of the frame, or -1 when it is free or parked in a magazine
+    public int getOwner(int frame) {
+        return frames.getOwner(frame);
+    }
+
+    // Free in the bitmap; frames parked in a magazine are not
+    public boolean isFree(int frame) {
+        return !frames.isAllocated(frame);
+    }
+
+    public boolean isInUse(int frame) {
+        return frames.getOwner(frame) != FrameAllocator.NO_OWNER;
+    }
+
+    public int getFreeCount() {
+        return frames.getFreeCount() + getCachedCount();
+    }
+
+    public int getCachedCount() {
+        int cached = 0;
+        for (Magazine magazine : magazines) {
+            cached += magazine.count;
+        }
+        return cached;
+    }
+
+    public int getTotalFrames() {
+        return frames.getTotalFrames();
+    }
+
+    public int getBatch() {
+        return batch;
+    }
+
+    public int getMagazineCount() {
+        return magazines.length;
+    }
+}
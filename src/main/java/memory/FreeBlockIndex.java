@@ -0,0 +1,123 @@
+package memory;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Free segments indexed two ways: by size (size -> start addresses) for
+// best-fit lookups and by start address for coalescing with neighbours.
+// Every operation is O(log n) in the number of free blocks. Free bytes and
+// the largest block size are kept up to date on every change, so reading
+// them is O(1).
+class FreeBlockIndex {
+    private final TreeMap<Integer, TreeSet<Integer>> bySize;
+    private final TreeMap<Integer, SegmentationManager.MemorySegment> byAddress;
+    private long freeBytes;
+    private int largest;
+
+    FreeBlockIndex() {
+        this.bySize = new TreeMap<>();
+        this.byAddress = new TreeMap<>();
+    }
+
+    void add(SegmentationManager.MemorySegment block) {
+        bySize.computeIfAbsent(block.getSize(), k -> new TreeSet<>()).add(block.getStartAddress());
+        byAddress.put(block.getStartAddress(), block);
+        freeBytes += block.getSize();
+        largest = Math.max(largest, block.getSize());
+    }
+
+    void remove(SegmentationManager.MemorySegment block) {
+        TreeSet<Integer> starts = bySize.get(block.getSize());
+        if (starts != null) {
+            starts.remove(block.getStartAddress());
+            if (starts.isEmpty()) {
+                bySize.remove(block.getSize());
+                if (block.getSize() == largest) {
+                    largest = bySize.isEmpty() ? 0 : bySize.lastKey();
+                }
+            }
+        }
+        if (byAddress.remove(block.getStartAddress()) != null) {
+            freeBytes -= block.getSize();
+        }
+    }
+
+    // Smallest block that fits, lowest address among equal sizes
+    SegmentationManager.MemorySegment bestFit(int size) {
+        Map.Entry<Integer, TreeSet<Integer>> entry = bySize.ceilingEntry(size);
+        return entry == null ? null : byAddress.get(entry.getValue().first());
+    }
+
+    // Lowest-addressed free block, or null
+    SegmentationManager.MemorySegment lowest() {
+        Map.Entry<Integer, SegmentationManager.MemorySegment> entry = byAddress.firstEntry();
+        return entry == null ? null : entry.getValue();
+    }
+
+    // Lowest-addressed block below limit that fits, or null
+    SegmentationManager.MemorySegment firstFitBelow(int size, int limit) {
+        for (SegmentationManager.MemorySegment block : byAddress.headMap(limit).values()) {
+            if (block.getSize() >= size) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    // Lowest-addressed block at or above from that fits, or null
+    SegmentationManager.MemorySegment firstFitFrom(int size, int from) {
+        for (SegmentationManager.MemorySegment block : byAddress.tailMap(from, true).values()) {
+            if (block.getSize() >= size) {
+                return block;
+            }
+        }
+        return null;
+    }
+
+    // Best fit among blocks starting outside [from, to]
+    SegmentationManager.MemorySegment bestFitOutside(int size, int from, int to) {
+        for (TreeSet<Integer> starts : bySize.tailMap(size).values()) {
+            for (int start : starts) {
+                if (start < from || start > to) {
+                    return byAddress.get(start);
+                }
+            }
+        }
+        return null;
+    }
+
+    int largestSize() {
+        return largest;
+    }
+
+    long freeBytes() {
+        return freeBytes;
+    }
+
+    // Largest size and the start addresses of the blocks that have it, or null
+    Map.Entry<Integer, TreeSet<Integer>> largestEntry() {
+        return bySize.lastEntry();
+    }
+
+    // Free blocks in address order
+    Collection<SegmentationManager.MemorySegment> blocks() {
+        return byAddress.values();
+    }
+
+    SegmentationManager.MemorySegment startingAt(int address) {
+        return byAddress.get(address);
+    }
+
+    void clear() {
+        bySize.clear();
+        byAddress.clear();
+        freeBytes = 0;
+        largest = 0;
+    }
+
+    int size() {
+        return byAddress.size();
+    }
+}
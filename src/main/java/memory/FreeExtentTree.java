@@ -0,0 +1,90 @@
+package memory;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+// Free frame runs for extent allocation, indexed like FreeBlockIndex: by
+// length (length -> start frames) for best-fit lookups and by start frame
+// for coalescing a released run with its neighbours. Every operation is
+// O(log n) in the number of free runs; free frames and the longest run are
+// kept up to date, so reading them is O(1).
+class FreeExtentTree {
+    private final TreeMap<Integer, TreeSet<Integer>> byLength;
+    private final TreeMap<Integer, Integer> byStart; // start -> length
+    private int freeFrames;
+
+    FreeExtentTree() {
+        this.byLength = new TreeMap<>();
+        this.byStart = new TreeMap<>();
+    }
+
+    // Takes length frames from the start of the shortest run that holds
+    // them, lowest start among equal lengths; returns the first frame or -1
+    int take(int length) {
+        Map.Entry<Integer, TreeSet<Integer>> entry = byLength.ceilingEntry(length);
+        if (entry == null || length <= 0) {
+            return -1;
+        }
+        int start = entry.getValue().first();
+        int runLength = entry.getKey();
+        remove(start, runLength);
+        if (runLength > length) {
+            insert(start + length, runLength - length);
+        }
+        return start;
+    }
+
+    // Returns frames to the tree, merging with the runs on either side
+    void release(int start, int length) {
+        if (length <= 0) {
+            return;
+        }
+        Map.Entry<Integer, Integer> previous = byStart.lowerEntry(start);
+        if (previous != null && previous.getKey() + previous.getValue() == start) {
+            remove(previous.getKey(), previous.getValue());
+            start = previous.getKey();
+            length += previous.getValue();
+        }
+        Integer next = byStart.get(start + length);
+        if (next != null) {
+            remove(start + length, next);
+            length += next;
+        }
+        insert(start, length);
+    }
+
+    private void insert(int start, int length) {
+        byLength.computeIfAbsent(length, k -> new TreeSet<>()).add(start);
+        byStart.put(start, length);
+        freeFrames += length;
+    }
+
+    private void remove(int start, int length) {
+        TreeSet<Integer> starts = byLength.get(length);
+        starts.remove(start);
+        if (starts.isEmpty()) {
+            byLength.remove(length);
+        }
+        byStart.remove(start);
+        freeFrames -= length;
+    }
+
+    int getFreeFrames() {
+        return freeFrames;
+    }
+
+    int getLongestRun() {
+        return byLength.isEmpty() ? 0 : byLength.lastKey();
+    }
+
+    int getRunCount() {
+        return byStart.size();
+    }
+
+    void clear() {
+        byLength.clear();
+        byStart.clear();
+        freeFrames = 0;
+    }
+}
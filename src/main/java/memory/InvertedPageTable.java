@@ -0,0 +1,116 @@
+package memory;
+
+import java.util.Arrays;
+
+// Hashed inverted page table: one entry per physical frame holding the
+// (process, virtual page) it maps, found through a hash anchor table with
+// collision chains. Table size follows physical memory, not address space.
+public class InvertedPageTable implements PageTable {
+    private static final int NONE = -1;
+    private static final int ENTRY_BYTES = 16;  // pid + chain link + virtual page
+    private static final int ANCHOR_BYTES = 4;
+
+    private final int[] ownerIds;
+    private final long[] virtualPages;
+    private final int[] chainNext;
+    private final int[] anchors;
+    private final int anchorMask;
+    private int mappedPages;
+    private int lastWalkDepth;
+
+    public InvertedPageTable(int totalFrames) {
+        this.ownerIds = new int[totalFrames];
+        this.virtualPages = new long[totalFrames];
+        this.chainNext = new int[totalFrames];
+        int anchorCount = Integer.highestOneBit(Math.max(1, totalFrames * 2 - 1));
+        this.anchors = new int[anchorCount];
+        this.anchorMask = anchorCount - 1;
+        Arrays.fill(ownerIds, NONE);
+        Arrays.fill(chainNext, NONE);
+        Arrays.fill(anchors, NONE);
+    }
+
+    @Override
+    public void map(int processId, long virtualPage, int frame) {
+        if (ownerIds[frame] != NONE) {
+            unmap(ownerIds[frame], virtualPages[frame]);
+        }
+        int existing = find(processId, virtualPage);
+        if (existing != NONE) {
+            unlink(existing);
+        }
+        int bucket = bucketOf(processId, virtualPage);
+        ownerIds[frame] = processId;
+        virtualPages[frame] = virtualPage;
+        chainNext[frame] = anchors[bucket];
+        anchors[bucket] = frame;
+        mappedPages++;
+    }
+
+    @Override
+    public void unmap(int processId, long virtualPage) {
+        int frame = find(processId, virtualPage);
+        if (frame != NONE) {
+            unlink(frame);
+        }
+    }
+
+    @Override
+    public int lookup(int processId, long virtualPage) {
+        int frame = find(processId, virtualPage);
+        return frame == NONE ? UNMAPPED : frame;
+    }
+
+    @Override
+    public void removeProcess(int processId) {
+        // Entries belong to frames, so unmapping the pages already freed them
+    }
+
+    // Reads the anchor, then one entry per chain link until the match
+    private int find(int processId, long virtualPage) {
+        lastWalkDepth = 1;
+        for (int frame = anchors[bucketOf(processId, virtualPage)]; frame != NONE; frame = chainNext[frame]) {
+            lastWalkDepth++;
+            if (ownerIds[frame] == processId && virtualPages[frame] == virtualPage) {
+                return frame;
+            }
+        }
+        return NONE;
+    }
+
+    private void unlink(int frame) {
+        int bucket = bucketOf(ownerIds[frame], virtualPages[frame]);
+        if (anchors[bucket] == frame) {
+            anchors[bucket] = chainNext[frame];
+        } else {
+            int prev = anchors[bucket];
+            while (chainNext[prev] != frame) {
+                prev = chainNext[prev];
+            }
+            chainNext[prev] = chainNext[frame];
+        }
+        ownerIds[frame] = NONE;
+        chainNext[frame] = NONE;
+        mappedPages--;
+    }
+
+    private int bucketOf(int processId, long virtualPage) {
+        long h = (virtualPage * 0x9E3779B97F4A7C15L) ^ (processId * 0xC2B2AE3D27D4EB4FL);
+        return (int) (h ^ (h >>> 32)) & anchorMask;
+    }
+
+    @Override
+    public int getLastWalkDepth() {
+        return lastWalkDepth;
+    }
+
+    @Override
+    public long getTableBytes() {
+        return (long) ownerIds.length * ENTRY_BYTES + (long) anchors.length * ANCHOR_BYTES;
+    }
+
+    @Override
+    public int getMappedPages() {
+        return mappedPages;
+    }
+}
@@ -0,0 +1,129 @@
+package memory;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear latency histogram in the style of HdrHistogram: every power of
+// two is split into 32 equal buckets, so any recorded value is known to
+// within about 3% from 1 ns to centuries, in a fixed 15 KB per stripe.
+// Recording threads are spread over striped bucket arrays like the frame
+// magazines, so recording stays cheap under contention; snapshots add the
+// stripes up.
+public class LatencyHistogram {
+    private static final int SUB_BITS = 6;
+    private static final int SUB_COUNT = 1 << SUB_BITS;  // exact below this
+    private static final int HALF = SUB_COUNT / 2;        // buckets per power of two above it
+    private static final int BUCKETS = SUB_COUNT + (63 - SUB_BITS) * HALF;
+
+    private final AtomicLongArray[] stripes;
+    private final LongAdder sum = new LongAdder();
+    private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+    public LatencyHistogram() {
+        int count = Math.min(16, Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)));
+        this.stripes = new AtomicLongArray[count];
+        for (int i = 0; i < count; i++) {
+            stripes[i] = new AtomicLongArray(BUCKETS);
+        }
+    }
+
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        int hash = System.identityHashCode(Thread.currentThread()) * 0x9E3779B9;
+        stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)].getAndIncrement(bucketOf(nanos));
+        sum.add(nanos);
+        max.accumulate(nanos);
+    }
+
+    // Values below SUB_COUNT get a bucket each; above, the top SUB_BITS bits
+    // pick one of HALF buckets in the value's power of two
+    static int bucketOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BITS + 1;
+        return SUB_COUNT + (shift - 1) * HALF + (int) (value >>> shift) - HALF;
+    }
+
+    // Middle of the bucket's value range
+    static long valueOf(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_COUNT) / HALF + 1;
+        long sub = (bucket - SUB_COUNT) % HALF + HALF;
+        return (sub << shift) + (1L << (shift - 1));
+    }
+
+    public void reset() {
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                stripe.set(i, 0);
+            }
+        }
+        sum.reset();
+        max.reset();
+    }
+
+    public Snapshot snapshot() {
+        long[] counts = new long[BUCKETS];
+        long total = 0;
+        for (AtomicLongArray stripe : stripes) {
+            for (int i = 0; i < BUCKETS; i++) {
+                long count = stripe.get(i);
+                counts[i] += count;
+                total += count;
+            }
+        }
+        return new Snapshot(counts, total, sum.sum(), max.get());
+    }
+
+    // Point-in-time copy; recordings racing with the snapshot may be missed
+    public static class Snapshot {
+        private final long[] counts;
+        private final long count;
+        private final long sum;
+        private final long max;
+
+        Snapshot(long[] counts, long count, long sum, long max) {
+            this.counts = counts;
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+        }
+
+        // Value at the given percentile (0-100), in nanoseconds
+        public long getValueAtPercentile(double percentile) {
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    return Math.min(valueOf(i), max);
+                }
+            }
+            return max;
+        }
+
+        // Getters
+        public long getCount() { return count; }
+        public long getMax() { return max; }
+        public double getMean() { return count == 0 ? 0 : (double) sum / count; }
+        public long getP50() { return getValueAtPercentile(50); }
+        public long getP90() { return getValueAtPercentile(90); }
+        public long getP99() { return getValueAtPercentile(99); }
+        public long getP999() { return getValueAtPercentile(99.9); }
+
+        @Override
+        public String toString() {
+            return String.format("count=%d mean=%.0fns p50=%dns p90=%dns p99=%dns p99.9=%dns max=%dns",
+                    count, getMean(), getP50(), getP90(), getP99(), getP999(), max);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package memory;
+
+import java.util.Arrays;
+import java.util.function.LongPredicate;
+
+// Binary max-heap of primitive longs. Callers pack a priority into the high
+// 32 bits and an id into the low 32 bits so no entry objects are needed.
+class LongMaxHeap {
+    private long[] heap;
+    private int size;
+
+    LongMaxHeap(int initialCapacity) {
+        this.heap = new long[Math.max(4, initialCapacity)];
+        this.size = 0;
+    }
+
+    static long pack(int priority, int id) {
+        return ((long) priority << 32) | (id & 0xFFFFFFFFL);
+    }
+
+    static int priority(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    static int id(long entry) {
+        return (int) entry;
+    }
+
+    void push(long entry) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] >= entry) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = entry;
+    }
+
+    long pop() {
+        long top = heap[0];
+        long last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    long peek() {
+        return heap[0];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    // Drops every entry matching the predicate and restores heap order in O(n)
+    void removeIf(LongPredicate predicate) {
+        int kept = 0;
+        for (int i = 0; i < size; i++) {
+            if (!predicate.test(heap[i])) {
+                heap[kept++] = heap[i];
+            }
+        }
+        size = kept;
+        for (int i = (size >>> 1) - 1; i >= 0; i--) {
+            siftDown(i, heap[i]);
+        }
+    }
+
+    private void siftDown(int i, long entry) {
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            int right = child + 1;
+            if (right < size && heap[right] > heap[child]) {
+                child = right;
+            }
+            if (entry >= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = entry;
+    }
+}
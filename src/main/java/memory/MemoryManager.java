@@ -1,34 +1,70 @@
 package memory;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+// Safe to drive from many threads. Allocation and release of one process are
+// serialized by that process's lock; different processes only meet inside the
+// managers, which claim frames lock-free and guard the rest with their own
+// monitors. Switching the memory type or resetting takes the mode lock
+// exclusively, so it never overlaps an allocation.
 public class MemoryManager {
-    private PagingManager pagingManager;
-    private SegmentationManager segmentationManager;
-    private List<Process> processes;
-    private int nextProcessId;
+    private volatile PagingManager pagingManager;
+    private volatile SegmentationManager segmentationManager;
+    private volatile BuddyAllocator buddyAllocator;
+    private volatile SlabAllocator slabAllocator; // small-object caches carved from segmentation memory
+    private final ProcessRegistry processes; // by id, with the active ones kept apart
+    private final AtomicInteger nextProcessId;
+    private final ReentrantReadWriteLock modeLock; // write: memory type switch or reset
+    private final MemoryMetrics metrics; // outlives reset, like any cumulative counter
     
     public enum MemoryType {
-        PAGING, SEGMENTATION
+        PAGING, SEGMENTATION, BUDDY
     }
     
-    private MemoryType currentType;
+    private volatile MemoryType currentType;
 
     public MemoryManager(int totalMemory, int pageSize) {
-        this.pagingManager = new PagingManager(totalMemory, pageSize);
+        this(totalMemory, pageSize, 0);
+    }
+
+    // frameCacheBatch is passed to PagingManager: > 0 for many threads allocating at once
+    public MemoryManager(int totalMemory, int pageSize, int frameCacheBatch) {
+        this.pagingManager = new PagingManager(totalMemory, pageSize, frameCacheBatch);
         this.segmentationManager = new SegmentationManager(totalMemory);
-        this.processes = new ArrayList<>();
-        this.nextProcessId = 1;
+        this.buddyAllocator = new BuddyAllocator(totalMemory, BuddyAllocator.DEFAULT_MIN_BLOCK_SIZE);
+        this.slabAllocator = new SlabAllocator(segmentationManager, SlabAllocator.DEFAULT_SLAB_SIZE);
+        this.processes = new ProcessRegistry();
+        this.nextProcessId = new AtomicInteger(1);
+        this.modeLock = new ReentrantReadWriteLock();
         this.currentType = MemoryType.PAGING;
+        this.metrics = new MemoryMetrics();
+        pagingManager.setMetrics(metrics);
+        segmentationManager.setMetrics(metrics);
     }
 
     public Process createProcess(String name, int size, int priority) {
-        Process process = new Process(nextProcessId++, name, size, priority);
+        Process process = new Process(nextProcessId.getAndIncrement(), name, size, priority);
         processes.add(process);
         return process;
     }
 
     public boolean allocateMemory(Process process) {
+        modeLock.readLock().lock();
+        process.getLock().lock();
+        try {
+            long start = System.nanoTime();
+            boolean allocated = allocateLocked(process);
+            metrics.recordAllocation(allocated, System.nanoTime() - start);
+            return allocated;
+        } finally {
+            process.getLock().unlock();
+            modeLock.readLock().unlock();
+        }
+    }
+
+    private boolean allocateLocked(Process process) {
         switch (currentType) {
             case PAGING:
                 return pagingManager.allocatePages(process);
@@ -48,45 +84,88 @@ public class MemoryManager {
                     segmentationManager.deallocateSegments(process);
                 }
                 return allocated;
+            case BUDDY:
+                // Same code/data/stack split, each placed in a buddy block
+                int codeBlock = process.getSize() / 3;
+                int dataBlock = process.getSize() / 3;
+                int stackBlock = process.getSize() - codeBlock - dataBlock;
+                
+                boolean placed = buddyAllocator.allocateSegment(process, codeBlock, "CODE")
+                        && buddyAllocator.allocateSegment(process, dataBlock, "DATA")
+                        && buddyAllocator.allocateSegment(process, stackBlock, "STACK");
+                
+                if (!placed) {
+                    buddyAllocator.deallocateBlocks(process);
+                }
+                return placed;
         }
         return false;
     }
 
     public void deallocateMemory(Process process) {
-        switch (currentType) {
-            case PAGING:
-                pagingManager.deallocatePages(process);
-                break;
-            case SEGMENTATION:
-                segmentationManager.deallocateSegments(process);
-                break;
+        modeLock.readLock().lock();
+        process.getLock().lock();
+        try {
+            switch (currentType) {
+                case PAGING:
+                    pagingManager.deallocatePages(process);
+                    break;
+                case SEGMENTATION:
+                    segmentationManager.deallocateSegments(process);
+                    break;
+                case BUDDY:
+                    buddyAllocator.deallocateBlocks(process);
+                    break;
+            }
+            process.setActive(false);
+            metrics.recordDeallocation();
+        } finally {
+            process.getLock().unlock();
+            modeLock.readLock().unlock();
         }
-        process.setActive(false);
     }
 
     public void terminateProcess(int processId) {
         Process process = findProcess(processId);
         if (process != null) {
-            deallocateMemory(process);
-            processes.remove(process);
+            // Same lock order as deallocateMemory: mode lock, then process lock
+            modeLock.readLock().lock();
+            process.getLock().lock();
+            try {
+                deallocateMemory(process);
+                processes.remove(processId);
+            } finally {
+                process.getLock().unlock();
+                modeLock.readLock().unlock();
+            }
         }
     }
 
     public Process findProcess(int processId) {
-        return processes.stream()
-                .filter(p -> p.getProcessId() == processId)
-                .findFirst()
-                .orElse(null);
+        return processes.find(processId);
     }
 
+    // Active processes sorted by id
     public List<Process> getActiveProcesses() {
-        return processes.stream()
-                .filter(Process::isActive)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+        return processes.active();
+    }
+
+    // The first n active processes by id, for views that show only a few
+    public List<Process> getFirstActiveProcesses(int n) {
+        return processes.firstActive(n);
+    }
+
+    public int getActiveProcessCount() {
+        return processes.activeCount();
     }
 
+    // All processes sorted by id
     public List<Process> getAllProcesses() {
-        return new ArrayList<>(processes);
+        return processes.all();
+    }
+
+    public int getProcessCount() {
+        return processes.size();
     }
 
     public PagingManager getPagingManager() {
@@ -97,23 +176,77 @@ public class MemoryManager {
         return segmentationManager;
     }
 
-    public void setMemoryType(MemoryType type) {
-        // Clear current allocations when switching
-        for (Process process : getActiveProcesses()) {
-            deallocateMemory(process);
+    public BuddyAllocator getBuddyAllocator() {
+        return buddyAllocator;
+    }
+
+    public SlabAllocator getSlabAllocator() {
+        return slabAllocator;
+    }
+
+    // Placement policy for segmentation memory, applied to later allocations
+    public void setPlacementPolicy(SegmentationManager.PlacementPolicy policy) {
+        segmentationManager.setPlacementPolicy(policy);
+    }
+
+    public SegmentationManager.PlacementPolicy getPlacementPolicy() {
+        return segmentationManager.getPlacementPolicy();
+    }
+
+    // Frame allocation for paging memory, applied to later allocations; no
+    // allocation runs while it changes
+    public void setFrameAllocation(PagingManager.FrameAllocation allocation) {
+        modeLock.writeLock().lock();
+        try {
+            pagingManager.setFrameAllocation(allocation);
+        } finally {
+            modeLock.writeLock().unlock();
         }
-        
-        this.currentType = type;
-        
-        // Reallocate with new memory management scheme
-        for (Process process : processes) {
-            if (!process.isActive()) {
-                process.setActive(true);
-                allocateMemory(process);
+    }
+
+    public PagingManager.FrameAllocation getFrameAllocation() {
+        return pagingManager.getFrameAllocation();
+    }
+
+    public void setMemoryType(MemoryType type) {
+        modeLock.writeLock().lock();
+        try {
+            // Clear current allocations when switching
+            for (Process process : getActiveProcesses()) {
+                deallocateMemory(process);
             }
+            
+            this.currentType = type;
+            
+            // Reallocate with new memory management scheme
+            for (Process process : processes.all()) {
+                if (!process.isActive()) {
+                    process.setActive(true);
+                    allocateMemory(process);
+                }
+            }
+        } finally {
+            modeLock.writeLock().unlock();
+        }
+    }
+
+    // Touches a process's pageIndex-th resident page under the mode lock, so
+    // the memory type cannot change underneath; false outside paging memory
+    // or when the process holds fewer pages
+    public boolean accessProcessPage(Process process, int pageIndex, boolean write) {
+        modeLock.readLock().lock();
+        try {
+            return currentType == MemoryType.PAGING
+                    && pagingManager.accessProcessPage(process, pageIndex, write);
+        } finally {
+            modeLock.readLock().unlock();
         }
     }
 
+    public MemoryMetrics getMetrics() {
+        return metrics;
+    }
+
     public MemoryType getCurrentType() {
         return currentType;
     }
@@ -126,7 +259,7 @@ public class MemoryManager {
                     pagingManager.getFreePages() * pagingManager.getPageSize(),
                     pagingManager.getFragmentation(),
                     processes.size(),
-                    getActiveProcesses().size()
+                    processes.activeCount()
                 );
             case SEGMENTATION:
                 return new MemoryStats(
@@ -134,7 +267,16 @@ public class MemoryManager {
                     segmentationManager.getFreeMemory(),
                     segmentationManager.getFragmentation(),
                     processes.size(),
-                    getActiveProcesses().size()
+                    processes.activeCount()
+                );
+            case BUDDY:
+                // Fragmentation here is the internal waste of power-of-two rounding
+                return new MemoryStats(
+                    buddyAllocator.getTotalMemory(),
+                    buddyAllocator.getFreeMemory(),
+                    buddyAllocator.getInternalFragmentation(),
+                    processes.size(),
+                    processes.activeCount()
                 );
         }
         return null;
@@ -169,12 +311,26 @@ public class MemoryManager {
     }
 
     public void reset() {
-        processes.clear();
-        nextProcessId = 1;
-        pagingManager = new PagingManager(
-            pagingManager.getTotalPages() * pagingManager.getPageSize(),
-            pagingManager.getPageSize()
-        );
-        segmentationManager = new SegmentationManager(segmentationManager.getTotalMemory());
+        modeLock.writeLock().lock();
+        try {
+            processes.clear();
+            nextProcessId.set(1);
+            PagingManager.FrameAllocation frameAllocation = pagingManager.getFrameAllocation();
+            pagingManager = new PagingManager(
+                pagingManager.getTotalPages() * pagingManager.getPageSize(),
+                pagingManager.getPageSize(),
+                pagingManager.getFrameCacheBatch()
+            );
+            pagingManager.setFrameAllocation(frameAllocation);
+            SegmentationManager.PlacementPolicy placementPolicy = segmentationManager.getPlacementPolicy();
+            segmentationManager = new SegmentationManager(segmentationManager.getTotalMemory());
+            segmentationManager.setPlacementPolicy(placementPolicy);
+            pagingManager.setMetrics(metrics);
+            segmentationManager.setMetrics(metrics);
+            buddyAllocator = new BuddyAllocator(segmentationManager.getTotalMemory(), buddyAllocator.getMinBlockSize());
+            slabAllocator = new SlabAllocator(segmentationManager, slabAllocator.getSlabSize());
+        } finally {
+            modeLock.writeLock().unlock();
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,194 @@
+package memory;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+// Operational counters of the memory managers. Everything on the hot paths is
+// a LongAdder or a striped LatencyHistogram, so recording never contends on
+// one cache line. Read them through snapshot() or over JMX once registered.
+public class MemoryMetrics implements MemoryMetricsMXBean {
+    private static final PagingManager.ReplacementAlgorithm[] ALGORITHMS = PagingManager.ReplacementAlgorithm.values();
+
+    private final LongAdder allocations = new LongAdder();
+    private final LongAdder allocationFailures = new LongAdder();
+    private final LongAdder deallocations = new LongAdder();
+    private final LongAdder pageAccesses = new LongAdder(); // accessPage and referencePage calls
+    private final LongAdder references = new LongAdder();   // referencePage calls only
+    private final LongAdder pageFaults = new LongAdder();
+    private final LongAdder[] evictions = new LongAdder[ALGORITHMS.length]; // by algorithm ordinal
+    private final LongAdder compactions = new LongAdder();
+    private final LongAdder compactionBytesMoved = new LongAdder();
+    private final LatencyHistogram allocateLatency = new LatencyHistogram();
+    private final LatencyHistogram accessLatency = new LatencyHistogram();
+    private volatile ObjectName objectName;
+
+    public MemoryMetrics() {
+        for (int i = 0; i < evictions.length; i++) {
+            evictions[i] = new LongAdder();
+        }
+    }
+
+    void recordAllocation(boolean allocated, long nanos) {
+        (allocated ? allocations : allocationFailures).increment();
+        allocateLatency.record(nanos);
+    }
+
+    void recordDeallocation() {
+        deallocations.increment();
+    }
+
+    void recordAccess(long nanos) {
+        pageAccesses.increment();
+        accessLatency.record(nanos);
+    }
+
+    void recordReference(boolean fault, long nanos) {
+        references.increment();
+        if (fault) {
+            pageFaults.increment();
+        }
+        recordAccess(nanos);
+    }
+
+    void recordEviction(PagingManager.ReplacementAlgorithm algorithm) {
+        evictions[algorithm.ordinal()].increment();
+    }
+
+    void recordCompaction(int bytesMoved) {
+        compactions.increment();
+        compactionBytesMoved.add(bytesMoved);
+    }
+
+    // Registers under memory:type=MemoryMetrics,name=<name> on the platform MBean server
+    public synchronized void registerMBean(String name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        ObjectName objectName = new ObjectName("memory:type=MemoryMetrics,name=" + ObjectName.quote(name));
+        if (server.isRegistered(objectName)) {
+            server.unregisterMBean(objectName);
+        }
+        server.registerMBean(this, objectName);
+        this.objectName = objectName;
+    }
+
+    public synchronized void unregisterMBean() throws JMException {
+        if (objectName != null) {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            objectName = null;
+        }
+    }
+
+    public Snapshot snapshot() {
+        EnumMap<PagingManager.ReplacementAlgorithm, Long> evicted = new EnumMap<>(PagingManager.ReplacementAlgorithm.class);
+        for (PagingManager.ReplacementAlgorithm algorithm : ALGORITHMS) {
+            evicted.put(algorithm, evictions[algorithm.ordinal()].sum());
+        }
+        return new Snapshot(allocations.sum(), allocationFailures.sum(), deallocations.sum(),
+                pageAccesses.sum(), references.sum(), pageFaults.sum(), evicted,
+                compactions.sum(), compactionBytesMoved.sum(),
+                allocateLatency.snapshot(), accessLatency.snapshot());
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : Arrays.asList(allocations, allocationFailures, deallocations, pageAccesses,
+                references, pageFaults, compactions, compactionBytesMoved)) {
+            adder.reset();
+        }
+        for (LongAdder adder : evictions) {
+            adder.reset();
+        }
+        allocateLatency.reset();
+        accessLatency.reset();
+    }
+
+    // MXBean attributes, read live
+    @Override public long getAllocations() { return allocations.sum(); }
+    @Override public long getAllocationFailures() { return allocationFailures.sum(); }
+    @Override public long getDeallocations() { return deallocations.sum(); }
+    @Override public long getPageAccesses() { return pageAccesses.sum(); }
+    @Override public long getPageFaults() { return pageFaults.sum(); }
+    @Override public double getFaultRate() { return snapshot().getFaultRate(); }
+    @Override public long getEvictions() { return snapshot().getEvictions(); }
+    @Override public long getCompactions() { return compactions.sum(); }
+    @Override public long getCompactionBytesMoved() { return compactionBytesMoved.sum(); }
+    @Override public LatencyHistogram.Snapshot getAllocateLatency() { return allocateLatency.snapshot(); }
+    @Override public LatencyHistogram.Snapshot getAccessLatency() { return accessLatency.snapshot(); }
+
+    @Override
+    public Map<String, Long> getEvictionsByAlgorithm() {
+        Map<String, Long> byName = new LinkedHashMap<>();
+        for (PagingManager.ReplacementAlgorithm algorithm : ALGORITHMS) {
+            byName.put(algorithm.name(), evictions[algorithm.ordinal()].sum());
+        }
+        return byName;
+    }
+
+    public static class Snapshot {
+        private final long allocations;
+        private final long allocationFailures;
+        private final long deallocations;
+        private final long pageAccesses;
+        private final long references;
+        private final long pageFaults;
+        private final Map<PagingManager.ReplacementAlgorithm, Long> evictions;
+        private final long compactions;
+        private final long compactionBytesMoved;
+        private final LatencyHistogram.Snapshot allocateLatency;
+        private final LatencyHistogram.Snapshot accessLatency;
+
+        Snapshot(long allocations, long allocationFailures, long deallocations, long pageAccesses,
+                 long references, long pageFaults, Map<PagingManager.ReplacementAlgorithm, Long> evictions,
+                 long compactions, long compactionBytesMoved,
+                 LatencyHistogram.Snapshot allocateLatency, LatencyHistogram.Snapshot accessLatency) {
+            this.allocations = allocations;
+            this.allocationFailures = allocationFailures;
+            this.deallocations = deallocations;
+            this.pageAccesses = pageAccesses;
+            this.references = references;
+            this.pageFaults = pageFaults;
+            this.evictions = Collections.unmodifiableMap(evictions);
+            this.compactions = compactions;
+            this.compactionBytesMoved = compactionBytesMoved;
+            this.allocateLatency = allocateLatency;
+            this.accessLatency = accessLatency;
+        }
+
+        // Getters
+        public long getAllocations() { return allocations; }
+        public long getAllocationFailures() { return allocationFailures; }
+        public long getDeallocations() { return deallocations; }
+        public long getPageAccesses() { return pageAccesses; }
+        public long getReferences() { return references; }
+        public long getPageFaults() { return pageFaults; }
+        public double getFaultRate() { return references == 0 ? 0 : (double) pageFaults / references; }
+        public Map<PagingManager.ReplacementAlgorithm, Long> getEvictionsByAlgorithm() { return evictions; }
+        public long getEvictions(PagingManager.ReplacementAlgorithm algorithm) { return evictions.get(algorithm); }
+        public long getCompactions() { return compactions; }
+        public long getCompactionBytesMoved() { return compactionBytesMoved; }
+        public LatencyHistogram.Snapshot getAllocateLatency() { return allocateLatency; }
+        public LatencyHistogram.Snapshot getAccessLatency() { return accessLatency; }
+
+        public long getEvictions() {
+            long total = 0;
+            for (long count : evictions.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("allocations=%d failures=%d deallocations=%d%n"
+                    + "page accesses=%d faults=%d (%.2f%% of references) evictions=%d %s%n"
+                    + "compactions=%d bytes moved=%d%n"
+                    + "allocate latency: %s%naccess latency: %s",
+                    allocations, allocationFailures, deallocations,
+                    pageAccesses, pageFaults, getFaultRate() * 100, getEvictions(), evictions,
+                    compactions, compactionBytesMoved, allocateLatency, accessLatency);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package memory;
+
+import java.util.Map;
+
+// JMX view of MemoryMetrics; counters are cumulative since start or reset
+public interface MemoryMetricsMXBean {
+    long getAllocations();
+
+    long getAllocationFailures();
+
+    long getDeallocations();
+
+    long getPageAccesses();
+
+    long getPageFaults();
+
+    // Faults per demand-paged reference
+    double getFaultRate();
+
+    long getEvictions();
+
+    Map<String, Long> getEvictionsByAlgorithm();
+
+    long getCompactions();
+
+    long getCompactionBytesMoved();
+
+    LatencyHistogram.Snapshot getAllocateLatency();
+
+    LatencyHistogram.Snapshot getAccessLatency();
+
+    void reset();
+}
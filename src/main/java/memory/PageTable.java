@@ -0,0 +1,32 @@
+package memory;
+
+// Virtual-to-physical page mapping structure. Implementations report how many
+// table entries the last lookup touched and how much memory the tables take,
+// so different layouts can be compared for large, sparse address spaces.
+public interface PageTable {
+    int UNMAPPED = -1;
+
+    // Throws IllegalArgumentException for a page the table cannot cover
+    void map(int processId, long virtualPage, int frame);
+
+    void unmap(int processId, long virtualPage);
+
+    // Releases the tables of a process whose address space is torn down
+    void removeProcess(int processId);
+
+    // Whether the table can map the page at all
+    default boolean covers(long virtualPage) {
+        return virtualPage >= 0;
+    }
+
+    // Frame holding the page, or UNMAPPED
+    int lookup(int processId, long virtualPage);
+
+    // Table entries read by the most recent lookup
+    int getLastWalkDepth();
+
+    // Bytes of table memory, counting 8-byte entries as a hardware walker would
+    long getTableBytes();
+
+    int getMappedPages();
+}
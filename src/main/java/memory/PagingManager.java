@@ -3,136 +3,601 @@ package memory;
 import java.util.*;
 
 public class PagingManager {
+    public static final int VIRTUAL_ADDRESS_BITS = 48;
+
     private int totalPages;
     private int pageSize;
-    private boolean[] pageTable;
-    private Map<Integer, Integer> pageOwners; // page number -> process id
-    private Queue<Integer> freePages;
-    private Queue<Integer> fifoQueue;
-    private Map<Integer, Integer> lruCounter;
-    private int accessCounter;
+    private FramePool frames; // free frames and page number -> process id
+    private ClockReplacer clock; // reference/modified bitsets and clock hands
+    private FrameList fifoList; // oldest loaded frame at the head
+    private FrameList lruList; // least recently used frame at the head
+    private BeladyOptimal optimalIndex; // null until a reference string is loaded
+    private int traceCursor;
+    private int[] upcomingUse; // frame -> next trace position it is referenced at
+    private LongMaxHeap optimalHeap; // (next use, frame), farthest first
+    private boolean[] pickedVictims; // frames already picked by the current OPTIMAL selection
+    private long[] frameVirtualPages; // frame -> virtual page number inside its owner
+    private int[] frameSlots; // frame -> index in its owner's page list
+    private PageTable pageTableStructure; // null unless a page table type is selected
+    private InvertedPageTable residentPages; // (process, virtual page) -> frame, for demand paging
+    private Map<Integer, Process> residents; // process id -> process holding frames
+    private FreeExtentTree freeExtents; // free frame runs; null unless allocating extents
+    private volatile MemoryMetrics metrics;
     
     public enum ReplacementAlgorithm {
-        FIFO, LRU, OPTIMAL
+        FIFO, LRU, OPTIMAL, CLOCK, SECOND_CHANCE, CLOCK_PRO
+    }
+
+    public enum PageTableType {
+        TWO_LEVEL, FOUR_LEVEL, INVERTED
+    }
+
+    // SCATTERED takes any free frames, one at a time; EXTENT carves processes
+    // contiguous runs out of a free-extent tree and records them per run
+    public enum FrameAllocation {
+        SCATTERED, EXTENT
     }
     
-    private ReplacementAlgorithm currentAlgorithm;
+    private volatile ReplacementAlgorithm currentAlgorithm;
+    private volatile FrameAllocation frameAllocation;
+    private PageTableType pageTableType;
+    private long untranslatedMappings; // pages outside the table's virtual address space
 
     public PagingManager(int totalMemory, int pageSize) {
+        this(totalMemory, pageSize, 0);
+    }
+
+    // frameCacheBatch > 0 puts FramePool magazines of that batch in front of
+    // the frame bitmap, for many threads allocating at once; 0 leaves them off
+    public PagingManager(int totalMemory, int pageSize, int frameCacheBatch) {
         this.totalPages = totalMemory / pageSize;
         this.pageSize = pageSize;
-        this.pageTable = new boolean[totalPages];
-        this.pageOwners = new HashMap<>();
-        this.freePages = new LinkedList<>();
-        this.fifoQueue = new LinkedList<>();
-        this.lruCounter = new HashMap<>();
-        this.accessCounter = 0;
+        this.frames = new FramePool(totalPages, frameCacheBatch);
+        this.fifoList = new FrameList(totalPages);
+        this.lruList = new FrameList(totalPages);
+        this.clock = new ClockReplacer(totalPages);
+        this.frameVirtualPages = new long[totalPages];
+        this.frameSlots = new int[totalPages];
+        this.residentPages = new InvertedPageTable(totalPages);
+        this.residents = new HashMap<>();
         this.currentAlgorithm = ReplacementAlgorithm.FIFO;
-        
-        // Initialize free pages
-        for (int i = 0; i < totalPages; i++) {
-            freePages.offer(i);
-        }
+        this.frameAllocation = FrameAllocation.SCATTERED;
+        this.metrics = new MemoryMetrics();
     }
 
+    // Free frames come from the frame pool without taking a lock; the replacement
+    // lists, page tables and process page lists are only touched while holding
+    // this manager's monitor. Pages missing after the free frames run out are
+    // taken from other processes by the replacement algorithm.
     public boolean allocatePages(Process process) {
         int pagesNeeded = process.getPagesNeeded(pageSize);
-        
-        if (freePages.size() >= pagesNeeded) {
-            // Allocate from free pages
-            for (int i = 0; i < pagesNeeded; i++) {
-                int pageNumber = freePages.poll();
-                pageTable[pageNumber] = true;
-                pageOwners.put(pageNumber, process.getProcessId());
-                process.addAllocatedPage(pageNumber);
-                fifoQueue.offer(pageNumber);
-                lruCounter.put(pageNumber, accessCounter++);
+        if (pagesNeeded > totalPages) {
+            return false; // Process too large
+        }
+        if (frameAllocation == FrameAllocation.EXTENT) {
+            synchronized (this) {
+                if (freeExtents != null) {
+                    return allocateExtents(process, pagesNeeded);
+                }
+            }
+        }
+
+        int[] claimed = new int[pagesNeeded];
+        int count = 0;
+        while (count < pagesNeeded) {
+            int frame = frames.allocate(process.getProcessId());
+            if (frame == FramePool.NO_FRAME) {
+                break;
+            }
+            claimed[count++] = frame;
+        }
+
+        synchronized (this) {
+            if (freeExtents != null) {
+                rebuildFreeExtents(); // switched to extents while claiming; take the claimed frames out of the tree
+            }
+            // Pick victims before loading, so the process never evicts itself
+            List<Integer> victims = Collections.emptyList();
+            if (count < pagesNeeded) {
+                victims = findVictims(pagesNeeded - count);
+                if (victims.size() < pagesNeeded - count) {
+                    for (int i = 0; i < count; i++) {
+                        releaseFrame(claimed[i]);
+                    }
+                    return false;
+                }
+            }
+
+            residents.put(process.getProcessId(), process);
+            for (int i = 0; i < count; i++) {
+                loadPage(claimed[i], process, process.getAllocatedPageCount());
+            }
+            for (int pageToReplace : victims) {
+                replacePage(pageToReplace, process, process.getAllocatedPageCount());
             }
             return true;
+        }
+    }
+
+    // Extent mode: free frames come off the free-extent tree as few, long runs
+    // (the shortest run that holds the rest, else the longest run) and the
+    // process records each run once. Pages missing after the tree runs dry
+    // are taken from other processes as usual.
+    private boolean allocateExtents(Process process, int pagesNeeded) {
+        int processId = process.getProcessId();
+        IntList runs = new IntList(); // start, length pairs
+        int claimed = 0;
+        while (claimed < pagesNeeded && freeExtents.getFreeFrames() > 0) {
+            int length = Math.min(pagesNeeded - claimed, freeExtents.getLongestRun());
+            int start = freeExtents.take(length);
+            if (!frames.claimRun(start, length, processId)) {
+                rebuildFreeExtents(); // a scattered allocation from before the switch got there first
+                continue;
+            }
+            runs.add(start);
+            runs.add(length);
+            claimed += length;
+        }
+
+        List<Integer> victims = Collections.emptyList();
+        if (claimed < pagesNeeded) {
+            victims = findVictims(pagesNeeded - claimed);
+            if (victims.size() < pagesNeeded - claimed) {
+                for (int i = 0; i < runs.size(); i += 2) {
+                    releaseRun(runs.get(i), runs.get(i + 1));
+                }
+                return false;
+            }
+        }
+
+        residents.put(processId, process);
+        for (int i = 0; i < runs.size(); i += 2) {
+            int start = runs.get(i);
+            int length = runs.get(i + 1);
+            long virtualPage = process.getAllocatedPageCount();
+            process.getAllocatedExtents().add(start, length);
+            for (int frame = start; frame < start + length; frame++) {
+                trackLoad(frame, processId, virtualPage + frame - start);
+            }
+        }
+        for (int pageToReplace : victims) {
+            replacePage(pageToReplace, process, process.getAllocatedPageCount());
+        }
+        return true;
+    }
+
+    private void loadPage(int pageNumber, Process process, long virtualPage) {
+        addOwnedPage(process, pageNumber);
+        trackLoad(pageNumber, process.getProcessId(), virtualPage);
+    }
+
+    private void trackLoad(int pageNumber, int processId, long virtualPage) {
+        mapFrame(processId, virtualPage, pageNumber);
+        fifoList.addLast(pageNumber);
+        lruList.addLast(pageNumber);
+        clock.onLoad(pageNumber);
+        trackNextUse(pageNumber);
+    }
+
+    // Frames held as runs go back a run at a time
+    public synchronized void deallocatePages(Process process) {
+        IntList pages = process.getAllocatedPages();
+        for (int i = 0; i < pages.size(); i++) {
+            int pageNumber = pages.get(i);
+            unload(pageNumber);
+            releaseFrame(pageNumber);
+        }
+        pages.clear();
+        ExtentList extents = process.getAllocatedExtents();
+        for (int i = 0; i < extents.getRunCount(); i++) {
+            int start = extents.getStart(i);
+            int length = extents.getLength(i);
+            for (int frame = start; frame < start + length; frame++) {
+                unload(frame);
+            }
+            releaseRun(start, length);
+        }
+        extents.clear();
+        residents.remove(process.getProcessId());
+        if (pageTableStructure != null) {
+            pageTableStructure.removeProcess(process.getProcessId());
+        }
+    }
+
+    private void unload(int pageNumber) {
+        unmapFrame(pageNumber);
+        fifoList.remove(pageNumber);
+        lruList.remove(pageNumber);
+        clock.onFree(pageNumber);
+    }
+
+    // Single frames go back to the frame pool, into its magazines if it has
+    // any, unless extents are tracked, which need every free frame in the
+    // bitmap and the tree
+    private void releaseFrame(int frame) {
+        if (freeExtents != null) {
+            releaseRun(frame, 1);
         } else {
-            // Try page replacement if no free pages
-            return handlePageFault(process, pagesNeeded);
+            frames.free(frame);
         }
     }
 
-    public void deallocatePages(Process process) {
-        for (int pageNumber : process.getAllocatedPages()) {
-            pageTable[pageNumber] = false;
-            pageOwners.remove(pageNumber);
-            freePages.offer(pageNumber);
-            fifoQueue.remove(pageNumber);
-            lruCounter.remove(pageNumber);
+    private void releaseRun(int start, int length) {
+        frames.freeRun(start, length);
+        if (freeExtents != null) {
+            freeExtents.release(start, length);
         }
-        process.getAllocatedPages().clear();
     }
 
-    private boolean handlePageFault(Process process, int pagesNeeded) {
-        if (pagesNeeded > totalPages) {
-            return false; // Process too large
+    // Free frames in the bitmap, as maximal runs
+    private void rebuildFreeExtents() {
+        frames.drain();
+        freeExtents.clear();
+        int runStart = -1;
+        for (int frame = 0; frame <= totalPages; frame++) {
+            boolean free = frame < totalPages && frames.isFree(frame);
+            if (free && runStart < 0) {
+                runStart = frame;
+            } else if (!free && runStart >= 0) {
+                freeExtents.release(runStart, frame - runStart);
+                runStart = -1;
+            }
         }
+    }
 
-        List<Integer> pagesToReplace = new ArrayList<>();
-        
-        // Find pages to replace based on algorithm
+    private List<Integer> findVictims(int count) {
         switch (currentAlgorithm) {
-            case FIFO:
-                pagesToReplace = findFIFOPages(pagesNeeded);
-                break;
             case LRU:
-                pagesToReplace = findLRUPages(pagesNeeded);
-                break;
+                return findLRUPages(count);
             case OPTIMAL:
-                pagesToReplace = findOptimalPages(pagesNeeded);
-                break;
+                return findOptimalPages(count);
+            case CLOCK:
+            case SECOND_CHANCE:
+            case CLOCK_PRO:
+                return findClockPages(count);
+            default:
+                return findFIFOPages(count);
         }
+    }
 
-        if (pagesToReplace.size() < pagesNeeded) {
-            return false;
+    // Hands a resident frame to a new owner, taking it out of the old owner's pages
+    private void replacePage(int pageToReplace, Process process, long virtualPage) {
+        int previousOwner = frames.getOwner(pageToReplace);
+        metrics.recordEviction(currentAlgorithm);
+        unmapFrame(pageToReplace);
+        Process victim = residents.get(previousOwner);
+        if (victim != null) {
+            removeOwnedPage(victim, pageToReplace);
         }
+        frames.setOwner(pageToReplace, process.getProcessId());
+        mapFrame(process.getProcessId(), virtualPage, pageToReplace);
+        addOwnedPage(process, pageToReplace);
+        fifoList.addLast(pageToReplace);
+        lruList.moveToLast(pageToReplace);
+        clock.onLoad(pageToReplace);
+        trackNextUse(pageToReplace);
+    }
 
-        // Replace pages
-        for (int pageToReplace : pagesToReplace) {
-            Integer oldOwnerId = pageOwners.get(pageToReplace);
-            if (oldOwnerId != null) {
-                // Remove from old process (simplified - in real OS this would cause page fault)
-                pageOwners.put(pageToReplace, process.getProcessId());
-                process.addAllocatedPage(pageToReplace);
-                fifoQueue.offer(pageToReplace);
-                lruCounter.put(pageToReplace, accessCounter++);
-            }
+    private void addOwnedPage(Process process, int frame) {
+        if (freeExtents != null) {
+            process.getAllocatedExtents().add(frame, 1);
+            return;
         }
+        IntList pages = process.getAllocatedPages();
+        frameSlots[frame] = pages.size();
+        pages.add(frame);
+    }
 
-        return true;
+    // O(1) for the page list: the last page moves into the freed slot. Only
+    // addOwnedPage puts frames in a page list and it records their slot,
+    // which switching the frame allocation leaves alone, so a frame whose
+    // slot does not hold it is in the extents.
+    private void removeOwnedPage(Process process, int frame) {
+        IntList pages = process.getAllocatedPages();
+        int slot = frameSlots[frame];
+        if (slot < pages.size() && pages.get(slot) == frame) {
+            pages.removeSwap(slot);
+            if (slot < pages.size()) {
+                frameSlots[pages.get(slot)] = slot;
+            }
+            return;
+        }
+        boolean removed = process.getAllocatedExtents().remove(frame);
+        assert removed : "frame " + frame + " is not held by process " + process.getProcessId();
     }
 
     private List<Integer> findFIFOPages(int count) {
+        return oldestOf(fifoList, count);
+    }
+
+    private List<Integer> findLRUPages(int count) {
+        return oldestOf(lruList, count);
+    }
+
+    private static List<Integer> oldestOf(FrameList list, int count) {
+        int[] victims = new int[Math.min(count, list.size())];
+        int found = list.peekOldest(victims);
+        List<Integer> pages = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            pages.add(victims[i]);
+        }
+        return pages;
+    }
+
+    private List<Integer> findOptimalPages(int count) {
+        if (optimalIndex == null) {
+            // Without a reference string there is no future to look at
+            return findLRUPages(count);
+        }
+
+        // Stale and duplicate entries are dropped; the picked ones go back on
+        // the heap, since the caller may fail the allocation and keep them
         List<Integer> pages = new ArrayList<>();
-        Iterator<Integer> iterator = fifoQueue.iterator();
-        while (iterator.hasNext() && pages.size() < count) {
-            pages.add(iterator.next());
+        while (pages.size() < count && !optimalHeap.isEmpty()) {
+            long entry = optimalHeap.pop();
+            int frame = LongMaxHeap.id(entry);
+            if (isResident(frame) && upcomingUse[frame] == LongMaxHeap.priority(entry)
+                    && !pickedVictims[frame]) {
+                pickedVictims[frame] = true;
+                pages.add(frame);
+            }
+        }
+        for (int frame : pages) {
+            pickedVictims[frame] = false;
+            optimalHeap.push(LongMaxHeap.pack(upcomingUse[frame], frame));
         }
         return pages;
     }
 
-    private List<Integer> findLRUPages(int count) {
-        return lruCounter.entrySet().stream()
-                .sorted(Map.Entry.comparingByValue())
-                .limit(count)
-                .map(Map.Entry::getKey)
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
+    private List<Integer> findClockPages(int count) {
+        int[] victims = new int[count];
+        int found = clock.selectVictims(currentAlgorithm, this::isResident, victims, count);
+        List<Integer> pages = new ArrayList<>(found);
+        for (int i = 0; i < found; i++) {
+            pages.add(victims[i]);
+        }
+        return pages;
     }
 
-    private List<Integer> findOptimalPages(int count) {
-        // Simplified optimal - just use LRU for this simulation
-        return findLRUPages(count);
+    // A frame is resident once its owner's load has been recorded; frames
+    // claimed by an allocation still waiting for the monitor are not
+    private boolean isResident(int frame) {
+        return lruList.contains(frame);
     }
 
     public void accessPage(int pageNumber) {
-        if (pageNumber < totalPages && pageTable[pageNumber]) {
-            lruCounter.put(pageNumber, accessCounter++);
+        accessPage(pageNumber, false);
+    }
+
+    // Access latencies include the wait for the monitor
+    public void accessPage(int pageNumber, boolean write) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            touch(pageNumber, write);
+        }
+        metrics.recordAccess(System.nanoTime() - start);
+    }
+
+    private void touch(int pageNumber, boolean write) {
+        if (pageNumber >= 0 && pageNumber < totalPages && isResident(pageNumber)) {
+            lruList.moveToLast(pageNumber);
+            clock.onAccess(pageNumber, write);
+        }
+        advanceTrace(pageNumber);
+    }
+
+    // Touches the process's pageIndex-th resident page; false if the process
+    // holds fewer pages, e.g. because replacement took some away
+    public boolean accessProcessPage(Process process, int pageIndex, boolean write) {
+        long start = System.nanoTime();
+        synchronized (this) {
+            IntList pages = process.getAllocatedPages();
+            if (pageIndex < 0 || pageIndex >= process.getAllocatedPageCount()) {
+                return false;
+            }
+            touch(pageIndex < pages.size() ? pages.get(pageIndex)
+                    : process.getAllocatedExtents().get(pageIndex - pages.size()), write);
+        }
+        metrics.recordAccess(System.nanoTime() - start);
+        return true;
+    }
+
+    // Demand paging: references a virtual page of the process, loading it on a
+    // miss into a free frame or, with memory full, into the frame the current
+    // algorithm evicts. Pages loaded by allocatePages are the process's virtual
+    // pages 0..n-1. Returns true on a hit, false on a page fault.
+    public boolean referencePage(Process process, long virtualPage, boolean write) {
+        long start = System.nanoTime();
+        boolean hit;
+        synchronized (this) {
+            hit = reference(process, virtualPage, write);
+        }
+        metrics.recordReference(!hit, System.nanoTime() - start);
+        return hit;
+    }
+
+    private boolean reference(Process process, long virtualPage, boolean write) {
+        int frame = residentPages.lookup(process.getProcessId(), virtualPage);
+        if (frame != PageTable.UNMAPPED) {
+            touch(frame, write);
+            return true;
+        }
+
+        residents.put(process.getProcessId(), process);
+        frame = claimFrame(process.getProcessId());
+        if (frame != FramePool.NO_FRAME) {
+            loadPage(frame, process, virtualPage);
+        } else {
+            List<Integer> victims = findVictims(1);
+            if (victims.isEmpty()) {
+                return false; // every frame is still being loaded elsewhere
+            }
+            frame = victims.get(0);
+            replacePage(frame, process, virtualPage);
+        }
+        clock.onAccess(frame, write);
+        return false;
+    }
+
+    // In extent mode a single frame comes from the shortest free run, which
+    // leaves the long runs whole
+    private int claimFrame(int owner) {
+        if (freeExtents == null) {
+            return frames.allocate(owner);
+        }
+        while (freeExtents.getFreeFrames() > 0) {
+            int frame = freeExtents.take(1);
+            if (frames.claimRun(frame, 1, owner)) {
+                return frame;
+            }
+            rebuildFreeExtents();
+        }
+        return FramePool.NO_FRAME;
+    }
+
+    // Loads the page-reference string that OPTIMAL looks ahead into. Pages in
+    // the string are frame numbers, consumed in order by accessPage.
+    public synchronized void setReferenceString(int[] references) {
+        this.optimalIndex = new BeladyOptimal(references);
+        this.traceCursor = 0;
+        this.upcomingUse = new int[totalPages];
+        this.optimalHeap = new LongMaxHeap(totalPages * 2);
+        this.pickedVictims = new boolean[totalPages];
+        for (int frame = 0; frame < totalPages; frame++) {
+            upcomingUse[frame] = optimalIndex.getFirstUse(frame);
+            if (isResident(frame)) {
+                optimalHeap.push(LongMaxHeap.pack(upcomingUse[frame], frame));
+            }
+        }
+    }
+
+    public synchronized void clearReferenceString() {
+        this.optimalIndex = null;
+        this.upcomingUse = null;
+        this.optimalHeap = null;
+        this.pickedVictims = null;
+        this.traceCursor = 0;
+    }
+
+    public synchronized BeladyOptimal getReferenceIndex() {
+        return optimalIndex;
+    }
+
+    private void advanceTrace(int pageNumber) {
+        if (optimalIndex == null || traceCursor >= optimalIndex.getLength()
+                || optimalIndex.getReference(traceCursor) != pageNumber) {
+            return; // off-trace accesses don't move the lookahead window
+        }
+        int nextUse = optimalIndex.getNextUse(traceCursor++);
+        if (pageNumber < totalPages) {
+            upcomingUse[pageNumber] = nextUse;
+            trackNextUse(pageNumber);
+        }
+    }
+
+    private void trackNextUse(int frame) {
+        if (optimalIndex == null) {
+            return;
+        }
+        optimalHeap.push(LongMaxHeap.pack(upcomingUse[frame], frame));
+        if (optimalHeap.size() > 2 * totalPages + 64) {
+            // Keep one live entry per allocated frame
+            boolean[] kept = new boolean[totalPages];
+            optimalHeap.removeIf(e -> {
+                int id = LongMaxHeap.id(e);
+                if (!isResident(id) || upcomingUse[id] != LongMaxHeap.priority(e) || kept[id]) {
+                    return true;
+                }
+                kept[id] = true;
+                return false;
+            });
+        }
+    }
+
+    private void mapFrame(int processId, long virtualPage, int frame) {
+        frameVirtualPages[frame] = virtualPage;
+        residentPages.map(processId, virtualPage, frame);
+        if (pageTableStructure != null) {
+            mapInTable(processId, virtualPage, frame);
+        }
+    }
+
+    // Pages beyond the virtual address space (e.g. trace addresses above
+    // 48 bits) stay resident but cannot be put in the table; they are counted
+    private void mapInTable(int processId, long virtualPage, int frame) {
+        if (pageTableStructure.covers(virtualPage)) {
+            pageTableStructure.map(processId, virtualPage, frame);
+        } else {
+            untranslatedMappings++;
+        }
+    }
+
+    private void unmapFrame(int frame) {
+        int owner = frames.getOwner(frame);
+        if (owner == FrameAllocator.NO_OWNER) {
+            return;
+        }
+        // A later load of the same virtual page may have taken the mapping over
+        if (residentPages.lookup(owner, frameVirtualPages[frame]) == frame) {
+            residentPages.unmap(owner, frameVirtualPages[frame]);
+        }
+        if (pageTableStructure != null) {
+            pageTableStructure.unmap(owner, frameVirtualPages[frame]);
+        }
+    }
+
+    // Selects the structure that maps each process's virtual pages to frames and
+    // rebuilds it from the current allocation; null turns mapping off
+    public synchronized void setPageTableType(PageTableType type) {
+        this.pageTableType = type;
+        this.pageTableStructure = type == null ? null : createPageTable(type);
+        this.untranslatedMappings = 0;
+        if (pageTableStructure != null) {
+            for (int frame = 0; frame < totalPages; frame++) {
+                if (isResident(frame)) {
+                    mapInTable(frames.getOwner(frame), frameVirtualPages[frame], frame);
+                }
+            }
         }
     }
 
+    private PageTable createPageTable(PageTableType type) {
+        int offsetBits = 64 - Long.numberOfLeadingZeros(pageSize * 1024L - 1); // page size is in KB
+        int virtualPageBits = VIRTUAL_ADDRESS_BITS - offsetBits;
+        switch (type) {
+            case TWO_LEVEL:
+                return new RadixPageTable(2, virtualPageBits);
+            case FOUR_LEVEL:
+                return new RadixPageTable(4, virtualPageBits);
+            default:
+                return new InvertedPageTable(totalPages);
+        }
+    }
+
+    public synchronized PageTableType getPageTableType() {
+        return pageTableType;
+    }
+
+    // Mappings the page table could not hold since it was selected
+    // Batch of the frame pool's magazines; 0 when they are off
+    public int getFrameCacheBatch() {
+        return frames.getBatch();
+    }
+
+    public synchronized long getUntranslatedMappings() {
+        return untranslatedMappings;
+    }
+
+    public synchronized PageTable getPageTableStructure() {
+        return pageTableStructure;
+    }
+
+    // Frame backing a process's virtual page, or PageTable.UNMAPPED
+    public synchronized int translate(int processId, long virtualPage) {
+        return pageTableStructure == null ? PageTable.UNMAPPED
+                : pageTableStructure.lookup(processId, virtualPage);
+    }
+
     public int getTotalPages() {
         return totalPages;
     }
@@ -142,15 +607,26 @@ public class PagingManager {
     }
 
     public boolean[] getPageTable() {
-        return pageTable.clone();
+        boolean[] pageTable = new boolean[totalPages];
+        for (int i = 0; i < totalPages; i++) {
+            pageTable[i] = frames.isInUse(i);
+        }
+        return pageTable;
     }
 
     public Map<Integer, Integer> getPageOwners() {
-        return new HashMap<>(pageOwners);
+        Map<Integer, Integer> pageOwners = new HashMap<>();
+        for (int i = 0; i < totalPages; i++) {
+            int owner = frames.getOwner(i);
+            if (owner != FrameAllocator.NO_OWNER) {
+                pageOwners.put(i, owner);
+            }
+        }
+        return pageOwners;
     }
 
     public int getFreePages() {
-        return freePages.size();
+        return frames.getFreeCount();
     }
 
     public void setReplacementAlgorithm(ReplacementAlgorithm algorithm) {
@@ -161,8 +637,43 @@ public class PagingManager {
         return currentAlgorithm;
     }
 
+    // Switching to EXTENT builds the free-extent tree from the free frames;
+    // frames already held stay where they are. Allocations running during
+    // the switch are tolerated, but MemoryManager.setFrameAllocation keeps
+    // them out.
+    public synchronized void setFrameAllocation(FrameAllocation allocation) {
+        this.frameAllocation = allocation;
+        if (allocation == FrameAllocation.EXTENT) {
+            freeExtents = new FreeExtentTree();
+            rebuildFreeExtents();
+        } else {
+            freeExtents = null;
+        }
+    }
+
+    public FrameAllocation getFrameAllocation() {
+        return frameAllocation;
+    }
+
+    // Free runs in the free-extent tree, 0 unless allocating extents
+    public synchronized int getFreeExtentCount() {
+        return freeExtents == null ? 0 : freeExtents.getRunCount();
+    }
+
+    public synchronized int getLongestFreeExtent() {
+        return freeExtents == null ? 0 : freeExtents.getLongestRun();
+    }
+
+    public void setMetrics(MemoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public MemoryMetrics getMetrics() {
+        return metrics;
+    }
+
     public double getFragmentation() {
-        int usedPages = totalPages - freePages.size();
-        return usedPages == 0 ? 0.0 : (double) freePages.size() / totalPages * 100;
+        int usedPages = totalPages - frames.getFreeCount();
+        return usedPages == 0 ? 0.0 : (double) frames.getFreeCount() / totalPages * 100;
     }
 }
\ No newline at end of file
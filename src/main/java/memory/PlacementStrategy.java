@@ -0,0 +1,15 @@
+package memory;
+
+// Chooses the free block a new segment is carved from. SegmentationManager
+// reports every free block it creates or consumes, so a strategy can keep
+// its own index of the free space.
+public interface PlacementStrategy {
+    void blockAdded(SegmentationManager.MemorySegment block);
+
+    void blockRemoved(SegmentationManager.MemorySegment block);
+
+    // Free block of at least size to allocate from, or null
+    SegmentationManager.MemorySegment select(int size);
+
+    void clear();
+}
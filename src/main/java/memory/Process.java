@@ -1,25 +1,31 @@
 package memory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Process {
     private int processId;
     private String name;
     private int size;
-    private List<Integer> allocatedPages;
-    private List<Integer> allocatedSegments;
-    private boolean isActive;
+    private IntList allocatedPages; // frame numbers, in no particular order
+    private ExtentList allocatedExtents; // frame runs from extent allocation
+    private IntList allocatedSegments; // start addresses
+    private volatile boolean isActive;
     private int priority;
+    private final ReentrantLock lock; // serializes allocation and release of this process
+    // Bookkeeping of the ProcessRegistry holding this process
+    volatile ProcessRegistry registry;
+    int orderSlot;
 
     public Process(int processId, String name, int size, int priority) {
         this.processId = processId;
         this.name = name;
         this.size = size;
         this.priority = priority;
-        this.allocatedPages = new ArrayList<>();
-        this.allocatedSegments = new ArrayList<>();
+        this.allocatedPages = new IntList();
+        this.allocatedExtents = new ExtentList();
+        this.allocatedSegments = new IntList();
         this.isActive = true;
+        this.lock = new ReentrantLock();
     }
 
     public int getProcessId() {
@@ -34,11 +40,20 @@ public class Process {
         return size;
     }
 
-    public List<Integer> getAllocatedPages() {
+    public IntList getAllocatedPages() {
         return allocatedPages;
     }
 
-    public List<Integer> getAllocatedSegments() {
+    public ExtentList getAllocatedExtents() {
+        return allocatedExtents;
+    }
+
+    // Frames held in either form
+    public int getAllocatedPageCount() {
+        return allocatedPages.size() + allocatedExtents.size();
+    }
+
+    public IntList getAllocatedSegments() {
         return allocatedSegments;
     }
 
@@ -47,19 +62,21 @@ public class Process {
     }
 
     public void setActive(boolean active) {
-        isActive = active;
-    }
-
-    public int getPriority() {
-        return priority;
+        if (isActive != active) {
+            isActive = active;
+            ProcessRegistry current = registry;
+            if (current != null) {
+                current.activeChanged(this);
+            }
+        }
     }
 
-    public void addAllocatedPage(int pageNumber) {
-        allocatedPages.add(pageNumber);
+    public ReentrantLock getLock() {
+        return lock;
     }
 
-    public void removeAllocatedPage(int pageNumber) {
-        allocatedPages.remove(Integer.valueOf(pageNumber));
+    public int getPriority() {
+        return priority;
     }
 
     public void addAllocatedSegment(int segmentNumber) {
@@ -67,7 +84,7 @@ public class Process {
     }
 
     public void removeAllocatedSegment(int segmentNumber) {
-        allocatedSegments.remove(Integer.valueOf(segmentNumber));
+        allocatedSegments.removeValue(segmentNumber);
     }
 
     public int getPagesNeeded(int pageSize) {
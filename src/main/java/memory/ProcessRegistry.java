@@ -0,0 +1,184 @@
+package memory;
+
+import java.util.*;
+
+// Processes by id in an open-addressing int -> Process table (linear probing,
+// backward-shift deletion), plus the active processes in a tree keyed by id
+// so they are always in id order. Lookup is O(1); insertion, removal and
+// active state changes are O(log active); Process.setActive reports to the
+// registry that holds it.
+class ProcessRegistry {
+    private int[] ids;
+    private Process[] table; // null = empty slot
+    private int size;
+    private TreeMap<Integer, Process> active; // id -> process
+    private Process[] ordered; // creation order, null where removed
+    private int orderedEnd;
+
+    ProcessRegistry() {
+        clear();
+    }
+
+    synchronized void add(Process process) {
+        if (find(process.getProcessId()) != null) {
+            throw new IllegalArgumentException("Duplicate process id " + process.getProcessId());
+        }
+        if ((size + 1) * 2 > table.length) {
+            rehash(table.length * 2);
+        }
+        insert(process);
+        size++;
+
+        if (orderedEnd == ordered.length) {
+            compactOrdered();
+        }
+        process.orderSlot = orderedEnd;
+        ordered[orderedEnd++] = process;
+
+        process.registry = this;
+        if (process.isActive()) {
+            active.put(process.getProcessId(), process);
+        }
+    }
+
+    synchronized Process find(int processId) {
+        int mask = table.length - 1;
+        for (int slot = slotOf(processId, mask); table[slot] != null; slot = (slot + 1) & mask) {
+            if (ids[slot] == processId) {
+                return table[slot];
+            }
+        }
+        return null;
+    }
+
+    synchronized Process remove(int processId) {
+        int mask = table.length - 1;
+        int slot = slotOf(processId, mask);
+        while (table[slot] != null && ids[slot] != processId) {
+            slot = (slot + 1) & mask;
+        }
+        Process process = table[slot];
+        if (process == null) {
+            return null;
+        }
+
+        // Shift later entries of the probe run back over the hole
+        int hole = slot;
+        for (int next = (hole + 1) & mask; table[next] != null; next = (next + 1) & mask) {
+            int home = slotOf(ids[next], mask);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                ids[hole] = ids[next];
+                table[hole] = table[next];
+                hole = next;
+            }
+        }
+        table[hole] = null;
+        size--;
+
+        active.remove(processId);
+        ordered[process.orderSlot] = null;
+        if (orderedEnd > 16 && size * 2 < orderedEnd) {
+            compactOrdered();
+        }
+        process.registry = null;
+        return process;
+    }
+
+    // Called by Process.setActive when the flag changes
+    synchronized void activeChanged(Process process) {
+        if (process.isActive()) {
+            active.put(process.getProcessId(), process);
+        } else {
+            active.remove(process.getProcessId());
+        }
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    synchronized int activeCount() {
+        return active.size();
+    }
+
+    // All processes in creation order, which is id order for MemoryManager's ids
+    synchronized List<Process> all() {
+        List<Process> processes = new ArrayList<>(size);
+        for (int i = 0; i < orderedEnd; i++) {
+            if (ordered[i] != null) {
+                processes.add(ordered[i]);
+            }
+        }
+        return processes;
+    }
+
+    // Active processes in id order; a copy of the tree's values, no sorting
+    synchronized List<Process> active() {
+        return new ArrayList<>(active.values());
+    }
+
+    // The n active processes with the lowest ids, in id order
+    synchronized List<Process> firstActive(int n) {
+        List<Process> first = new ArrayList<>(Math.max(0, Math.min(n, active.size())));
+        for (Iterator<Process> it = active.values().iterator(); it.hasNext() && first.size() < n; ) {
+            first.add(it.next());
+        }
+        return first;
+    }
+
+    synchronized void clear() {
+        for (int i = 0; table != null && i < orderedEnd; i++) {
+            if (ordered[i] != null) {
+                ordered[i].registry = null;
+            }
+        }
+        ids = new int[16];
+        table = new Process[16];
+        size = 0;
+        active = new TreeMap<>();
+        ordered = new Process[16];
+        orderedEnd = 0;
+    }
+
+    // Squeezes out removed entries, growing if the array is still full
+    private void compactOrdered() {
+        int live = 0;
+        for (int i = 0; i < orderedEnd; i++) {
+            if (ordered[i] != null) {
+                ordered[i].orderSlot = live;
+                ordered[live++] = ordered[i];
+            }
+        }
+        Arrays.fill(ordered, live, orderedEnd, null);
+        orderedEnd = live;
+        if (live * 2 > ordered.length) {
+            ordered = Arrays.copyOf(ordered, ordered.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        Process[] oldTable = table;
+        ids = new int[capacity];
+        table = new Process[capacity];
+        for (Process process : oldTable) {
+            if (process != null) {
+                insert(process);
+            }
+        }
+    }
+
+    private void insert(Process process) {
+        int mask = table.length - 1;
+        int slot = slotOf(process.getProcessId(), mask);
+        while (table[slot] != null) {
+            slot = (slot + 1) & mask;
+        }
+        ids[slot] = process.getProcessId();
+        table[slot] = process;
+    }
+
+    private static int slotOf(int processId, int mask) {
+        int hash = processId * 0x9E3779B9;
+        return (hash ^ (hash >>> 16)) & mask;
+    }
+}
@@ -0,0 +1,194 @@
+package memory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Hierarchical (radix) page table with one root per process. The virtual page
+// number is split into equal index fields, one per level; inner nodes and
+// leaves are allocated only when a mapping first needs them. The fields
+// together cover the whole virtual page number, so fewer levels mean wider
+// nodes (two levels over 36 bits index 18 bits, 256K entries, per node)
+// rather than a smaller reach. Pages outside the address space are rejected
+// rather than folded into low slots.
+public class RadixPageTable implements PageTable {
+    private static final int ENTRY_BYTES = 8;
+    public static final int MAX_BITS_PER_LEVEL = 20; // 1M entries, 8 MB per node
+
+    private final int levels;
+    private final int bitsPerLevel;
+    private final int entriesPerNode;
+    private final int coveredBits;
+    private final Map<Integer, Object[]> roots; // process id -> top-level node
+    private long nodeCount;
+    private int mappedPages;
+    private int lastWalkDepth;
+
+    public RadixPageTable(int levels, int virtualPageBits) {
+        if (levels < 2 || virtualPageBits < levels) {
+            throw new IllegalArgumentException("Invalid radix table shape: " + levels + " levels, "
+                    + virtualPageBits + " bits");
+        }
+        this.levels = levels;
+        this.bitsPerLevel = (virtualPageBits + levels - 1) / levels;
+        if (bitsPerLevel > MAX_BITS_PER_LEVEL) {
+            throw new IllegalArgumentException(levels + " levels over " + virtualPageBits
+                    + " bits need nodes of 2^" + bitsPerLevel + " entries; use more levels");
+        }
+        this.entriesPerNode = 1 << bitsPerLevel;
+        this.coveredBits = virtualPageBits;
+        this.roots = new HashMap<>();
+    }
+
+    @Override
+    public void map(int processId, long virtualPage, int frame) {
+        if (!covers(virtualPage)) {
+            throw new IllegalArgumentException("Virtual page " + virtualPage + " is outside the "
+                    + coveredBits + "-bit virtual page space");
+        }
+        Object[] node = roots.get(processId);
+        if (node == null) {
+            node = newInnerNode();
+            roots.put(processId, node);
+        }
+        for (int level = 0; level < levels - 2; level++) {
+            int index = indexAt(virtualPage, level);
+            Object[] child = (Object[]) node[index];
+            if (child == null) {
+                child = newInnerNode();
+                node[index] = child;
+            }
+            node = child;
+        }
+        int[] leaf = leafFor(node, virtualPage);
+        int slot = indexAt(virtualPage, levels - 1);
+        if (leaf[slot] == UNMAPPED) {
+            mappedPages++;
+        }
+        leaf[slot] = frame;
+    }
+
+    private int[] leafFor(Object[] parent, long virtualPage) {
+        int index = indexAt(virtualPage, levels - 2);
+        int[] leaf = (int[]) parent[index];
+        if (leaf == null) {
+            leaf = new int[entriesPerNode];
+            Arrays.fill(leaf, UNMAPPED);
+            parent[index] = leaf;
+            nodeCount++;
+        }
+        return leaf;
+    }
+
+    @Override
+    public void unmap(int processId, long virtualPage) {
+        int[] leaf = findLeaf(processId, virtualPage);
+        if (leaf != null) {
+            int slot = indexAt(virtualPage, levels - 1);
+            if (leaf[slot] != UNMAPPED) {
+                leaf[slot] = UNMAPPED;
+                mappedPages--;
+            }
+        }
+    }
+
+    @Override
+    public int lookup(int processId, long virtualPage) {
+        int[] leaf = findLeaf(processId, virtualPage);
+        if (leaf == null) {
+            return UNMAPPED;
+        }
+        lastWalkDepth = levels;
+        return leaf[indexAt(virtualPage, levels - 1)];
+    }
+
+    // Walks down to the leaf, counting one entry read per level visited
+    private int[] findLeaf(int processId, long virtualPage) {
+        Object[] node = roots.get(processId);
+        lastWalkDepth = 0;
+        if (node == null || !covers(virtualPage)) {
+            return null;
+        }
+        for (int level = 0; level < levels - 1; level++) {
+            lastWalkDepth++;
+            Object child = node[indexAt(virtualPage, level)];
+            if (child == null) {
+                return null;
+            }
+            if (level == levels - 2) {
+                return (int[]) child;
+            }
+            node = (Object[]) child;
+        }
+        return null;
+    }
+
+    @Override
+    public void removeProcess(int processId) {
+        Object[] root = roots.remove(processId);
+        if (root != null) {
+            release(root, 0);
+        }
+    }
+
+    private void release(Object[] node, int level) {
+        nodeCount--;
+        for (Object child : node) {
+            if (child == null) {
+                continue;
+            }
+            if (level == levels - 2) {
+                for (int frame : (int[]) child) {
+                    if (frame != UNMAPPED) {
+                        mappedPages--;
+                    }
+                }
+                nodeCount--;
+            } else {
+                release((Object[]) child, level + 1);
+            }
+        }
+    }
+
+    private Object[] newInnerNode() {
+        nodeCount++;
+        return new Object[entriesPerNode];
+    }
+
+    private int indexAt(long virtualPage, int level) {
+        int shift = (levels - 1 - level) * bitsPerLevel;
+        return (int) ((virtualPage >>> shift) & (entriesPerNode - 1));
+    }
+
+    @Override
+    public boolean covers(long virtualPage) {
+        return virtualPage >= 0 && virtualPage >>> coveredBits == 0;
+    }
+
+    @Override
+    public int getLastWalkDepth() {
+        return lastWalkDepth;
+    }
+
+    @Override
+    public long getTableBytes() {
+        return nodeCount * entriesPerNode * ENTRY_BYTES;
+    }
+
+    @Override
+    public int getMappedPages() {
+        return mappedPages;
+    }
+
+    public int getLevels() {
+        return levels;
+    }
+
+    public int getBitsPerLevel() {
+        return bitsPerLevel;
+    }
+
+    public long getNodeCount() {
+        return nodeCount;
+    }
+}
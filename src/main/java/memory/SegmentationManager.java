@@ -4,8 +4,36 @@ import java.util.*;
 
 public class SegmentationManager {
     private int totalMemory;
-    private List<MemorySegment> memorySegments;
+    private TreeMap<Integer, MemorySegment> memorySegments; // start address -> segment
+    private FreeBlockIndex freeBlocks; // free segments by size and by address
+    private PlacementStrategy placement;
+    private PlacementPolicy placementPolicy;
     private Map<Integer, List<MemorySegment>> processSegments; // process id -> segments
+    private List<RelocationListener> relocationListeners;
+    private int compactionStepLimit; // bytes one allocation may move; 0 = policy-driven compaction
+    private CompactionPolicy compactionPolicy;
+    private int lastCompactionBytesMoved;
+    private long totalBytesMoved;
+    private MemoryMetrics metrics;
+
+    public enum PlacementPolicy {
+        BEST_FIT, FIRST_FIT, NEXT_FIT, WORST_FIT, TLSF
+    }
+
+    // FULL slides everything to address 0. The others try to make room for a
+    // pending request while copying as few bytes as possible:
+    // PARTIAL slides from the bottom only until a large enough hole exists,
+    // TWO_FINGER moves the highest segments into the lowest holes that fit,
+    // SMALLEST_BLOCKERS frees the address window that is cheapest to clear by
+    // moving its segments into holes outside it.
+    public enum CompactionPolicy {
+        FULL, PARTIAL, TWO_FINGER, SMALLEST_BLOCKERS
+    }
+
+    // Told about every allocated segment that compaction moves
+    public interface RelocationListener {
+        void segmentMoved(MemorySegment from, MemorySegment to);
+    }
     
     public static class MemorySegment {
         private int startAddress;
@@ -45,92 +73,192 @@ public class SegmentationManager {
 
     public SegmentationManager(int totalMemory) {
         this.totalMemory = totalMemory;
-        this.memorySegments = new ArrayList<>();
+        this.memorySegments = new TreeMap<>();
+        this.freeBlocks = new FreeBlockIndex();
         this.processSegments = new HashMap<>();
+        this.relocationListeners = new ArrayList<>();
+        this.compactionPolicy = CompactionPolicy.FULL;
+        this.placementPolicy = PlacementPolicy.BEST_FIT;
+        this.placement = createPlacement(placementPolicy);
+        this.metrics = new MemoryMetrics();
         
         // Initialize with one large free segment
-        memorySegments.add(new MemorySegment(0, totalMemory));
+        if (totalMemory > 0) {
+            addFreeBlock(new MemorySegment(0, totalMemory));
+        }
+    }
+
+    public synchronized boolean allocateSegment(Process process, int segmentSize, String segmentType) {
+        if (segmentSize <= 0) {
+            return true; // nothing to place
+        }
+        return allocateSegment(process.getProcessId(), segmentSize, segmentType) >= 0;
     }
 
-    public boolean allocateSegment(Process process, int segmentSize, String segmentType) {
-        // Find best fit segment
-        MemorySegment bestFit = findBestFit(segmentSize);
+    // Places a segment for the given owner; returns its start address or -1
+    public synchronized int allocateSegment(int processId, int segmentSize, String segmentType) {
+        if (segmentSize <= 0) {
+            return -1;
+        }
+
+        // Find a free segment with the current placement policy
+        MemorySegment freeBlock = placement.select(segmentSize);
         
-        if (bestFit == null) {
-            // Try compaction
-            compact();
-            bestFit = findBestFit(segmentSize);
+        if (freeBlock == null && compactionStepLimit > 0) {
+            // One bounded step per allocation; if the segment still does not fit
+            // this call fails and later calls carry the compaction on
+            if (segmentSize <= freeBlocks.freeBytes() && compactStep(compactionStepLimit) > 0) {
+                freeBlock = placement.select(segmentSize);
+            }
+        } else if (freeBlock == null) {
+            compact(compactionPolicy, segmentSize);
+            freeBlock = placement.select(segmentSize);
         }
         
-        if (bestFit == null) {
-            return false; // Cannot allocate
+        if (freeBlock == null) {
+            return -1; // Cannot allocate
         }
         
+        removeFreeBlock(freeBlock);
+        MemorySegment allocatedSegment = new MemorySegment(
+            freeBlock.getStartAddress(), segmentSize, processId, segmentType
+        );
+        memorySegments.put(allocatedSegment.getStartAddress(), allocatedSegment);
+        
         // Split segment if necessary
-        if (bestFit.getSize() > segmentSize) {
-            MemorySegment newSegment = new MemorySegment(
-                bestFit.getStartAddress() + segmentSize,
-                bestFit.getSize() - segmentSize
-            );
-            memorySegments.add(newSegment);
+        if (freeBlock.getSize() > segmentSize) {
+            addFreeBlock(new MemorySegment(
+                freeBlock.getStartAddress() + segmentSize,
+                freeBlock.getSize() - segmentSize
+            ));
         }
         
-        // Allocate the segment
-        bestFit.setAllocated(true);
-        bestFit.setProcessId(process.getProcessId());
-        bestFit.setSegmentType(segmentType);
-        
         // Update process segments
-        processSegments.computeIfAbsent(process.getProcessId(), k -> new ArrayList<>())
-                      .add(bestFit);
-        
-        // Update segment size
-        if (bestFit.getSize() > segmentSize) {
-            MemorySegment allocatedSegment = new MemorySegment(
-                bestFit.getStartAddress(), segmentSize, process.getProcessId(), segmentType
-            );
-            memorySegments.remove(bestFit);
-            memorySegments.add(allocatedSegment);
-            
-            processSegments.get(process.getProcessId()).remove(bestFit);
-            processSegments.get(process.getProcessId()).add(allocatedSegment);
+        processSegments.computeIfAbsent(processId, k -> new ArrayList<>())
+                      .add(allocatedSegment);
+        return allocatedSegment.getStartAddress();
+    }
+
+    // Frees one segment of the owner; returns false if it holds none at that address
+    public synchronized boolean freeSegment(int processId, int startAddress) {
+        MemorySegment segment = memorySegments.get(startAddress);
+        if (segment == null || !segment.isAllocated() || segment.getProcessId() != processId) {
+            return false;
         }
-        
-        sortSegments();
+        List<MemorySegment> segments = processSegments.get(processId);
+        if (segments != null) {
+            segments.remove(segment);
+            if (segments.isEmpty()) {
+                processSegments.remove(processId);
+            }
+        }
+        releaseSegment(segment);
         return true;
     }
 
-    public void deallocateSegments(Process process) {
-        List<MemorySegment> segments = processSegments.get(process.getProcessId());
+    public synchronized void deallocateSegments(Process process) {
+        List<MemorySegment> segments = processSegments.remove(process.getProcessId());
         if (segments == null) return;
         
         for (MemorySegment segment : segments) {
-            segment.setAllocated(false);
-            segment.setProcessId(-1);
-            segment.setSegmentType("FREE");
+            releaseSegment(segment);
+        }
+    }
+
+    // Turns an allocated segment back into free space, coalescing with free neighbours
+    private void releaseSegment(MemorySegment segment) {
+        memorySegments.remove(segment.getStartAddress());
+        int start = segment.getStartAddress();
+        int size = segment.getSize();
+        
+        Map.Entry<Integer, MemorySegment> lower = memorySegments.lowerEntry(start);
+        if (lower != null && !lower.getValue().isAllocated()
+                && lower.getValue().getEndAddress() + 1 == start) {
+            MemorySegment previous = lower.getValue();
+            removeFreeBlock(previous);
+            start = previous.getStartAddress();
+            size += previous.getSize();
         }
         
-        processSegments.remove(process.getProcessId());
-        mergeAdjacent();
+        MemorySegment following = freeBlocks.startingAt(segment.getEndAddress() + 1);
+        if (following != null) {
+            removeFreeBlock(following);
+            size += following.getSize();
+        }
+        
+        addFreeBlock(new MemorySegment(start, size));
     }
 
-    private MemorySegment findBestFit(int size) {
-        MemorySegment bestFit = null;
-        for (MemorySegment segment : memorySegments) {
-            if (!segment.isAllocated() && segment.getSize() >= size) {
-                if (bestFit == null || segment.getSize() < bestFit.getSize()) {
-                    bestFit = segment;
-                }
+    private void addFreeBlock(MemorySegment block) {
+        memorySegments.put(block.getStartAddress(), block);
+        freeBlocks.add(block);
+        placement.blockAdded(block);
+    }
+
+    private void removeFreeBlock(MemorySegment block) {
+        memorySegments.remove(block.getStartAddress());
+        freeBlocks.remove(block);
+        placement.blockRemoved(block);
+    }
+
+    // Switches the placement policy, indexing the current free blocks for it
+    public synchronized void setPlacementPolicy(PlacementPolicy policy) {
+        this.placementPolicy = policy;
+        this.placement = createPlacement(policy);
+        for (MemorySegment block : freeBlocks.blocks()) {
+            placement.blockAdded(block);
+        }
+    }
+
+    public synchronized PlacementPolicy getPlacementPolicy() {
+        return placementPolicy;
+    }
+
+    private PlacementStrategy createPlacement(PlacementPolicy policy) {
+        if (policy == PlacementPolicy.TLSF) {
+            return new TlsfPlacement();
+        }
+        return new FitPlacement(policy, freeBlocks);
+    }
+
+    // Compacts with the given policy so that a block of requiredSize fits, or
+    // as far as the policy goes when requiredSize is 0. When the cheaper
+    // policies cannot make the room on their own, sliding finishes the job.
+    // Returns the bytes copied.
+    public synchronized int compact(CompactionPolicy policy, int requiredSize) {
+        int bytesMoved;
+        if (policy == CompactionPolicy.FULL) {
+            bytesMoved = compactFull();
+        } else if (requiredSize > 0 && (freeBlocks.largestSize() >= requiredSize
+                || requiredSize > getFreeMemory())) {
+            bytesMoved = 0; // nothing to gain, or no policy can make the room
+        } else {
+            switch (policy) {
+                case TWO_FINGER:
+                    bytesMoved = compactTwoFinger(requiredSize);
+                    break;
+                case SMALLEST_BLOCKERS:
+                    bytesMoved = requiredSize > 0 ? compactSmallestBlockers(requiredSize) : 0;
+                    break;
+                default:
+                    bytesMoved = 0;
+                    break;
+            }
+            if (requiredSize == 0 ? policy == CompactionPolicy.PARTIAL
+                    : freeBlocks.largestSize() < requiredSize) {
+                bytesMoved += slide(Integer.MAX_VALUE, requiredSize);
             }
         }
-        return bestFit;
+        recordBytesMoved(bytesMoved);
+        return bytesMoved;
     }
 
-    private void compact() {
+    private int compactFull() {
+        int bytesMoved = 0;
         List<MemorySegment> allocatedSegments = new ArrayList<>();
         int totalFreeSpace = 0;
         
-        for (MemorySegment segment : memorySegments) {
+        for (MemorySegment segment : memorySegments.values()) {
             if (segment.isAllocated()) {
                 allocatedSegments.add(segment);
             } else {
@@ -139,6 +267,11 @@ public class SegmentationManager {
         }
         
         memorySegments.clear();
+        freeBlocks.clear();
+        placement.clear();
+        for (List<MemorySegment> processSegs : processSegments.values()) {
+            processSegs.clear();
+        }
         
         // Place allocated segments at the beginning
         int currentAddress = 0;
@@ -146,81 +279,316 @@ public class SegmentationManager {
             MemorySegment compactedSegment = new MemorySegment(
                 currentAddress, segment.getSize(), segment.getProcessId(), segment.getSegmentType()
             );
-            memorySegments.add(compactedSegment);
+            memorySegments.put(currentAddress, compactedSegment);
             currentAddress += segment.getSize();
+            if (compactedSegment.getStartAddress() != segment.getStartAddress()) {
+                bytesMoved += segment.getSize();
+                notifyMoved(segment, compactedSegment);
+            }
             
             // Update process segments reference
             List<MemorySegment> processSegs = processSegments.get(segment.getProcessId());
             if (processSegs != null) {
-                processSegs.remove(segment);
                 processSegs.add(compactedSegment);
             }
         }
         
         // Add remaining free space as one segment
         if (totalFreeSpace > 0) {
-            memorySegments.add(new MemorySegment(currentAddress, totalFreeSpace));
+            addFreeBlock(new MemorySegment(currentAddress, totalFreeSpace));
         }
-        
-        sortSegments();
+        return bytesMoved;
     }
 
-    private void mergeAdjacent() {
-        sortSegments();
-        List<MemorySegment> merged = new ArrayList<>();
-        
-        for (MemorySegment current : memorySegments) {
-            if (merged.isEmpty() || merged.get(merged.size() - 1).isAllocated() || 
-                current.isAllocated() || 
-                merged.get(merged.size() - 1).getEndAddress() + 1 != current.getStartAddress()) {
-                merged.add(current);
-            } else {
-                // Merge with previous free segment
-                MemorySegment last = merged.get(merged.size() - 1);
-                MemorySegment mergedSegment = new MemorySegment(
-                    last.getStartAddress(), 
-                    last.getSize() + current.getSize()
-                );
-                merged.set(merged.size() - 1, mergedSegment);
+    // Free finger from the bottom, live finger from the top: each allocated
+    // segment, highest first, moves into the lowest hole below it that fits.
+    // Stops when the fingers cross or a block of requiredSize exists.
+    private int compactTwoFinger(int requiredSize) {
+        int bytesMoved = 0;
+        for (MemorySegment segment : new ArrayList<>(memorySegments.descendingMap().values())) {
+            if (requiredSize > 0 && freeBlocks.largestSize() >= requiredSize) {
+                break;
+            }
+            MemorySegment lowestHole = freeBlocks.lowest();
+            if (lowestHole == null || lowestHole.getStartAddress() > segment.getStartAddress()) {
+                break;
+            }
+            if (!segment.isAllocated() || memorySegments.get(segment.getStartAddress()) != segment) {
+                continue;
+            }
+            MemorySegment hole = freeBlocks.firstFitBelow(segment.getSize(), segment.getStartAddress());
+            if (hole != null) {
+                MemorySegment moved = placeCopy(segment, hole);
+                releaseSegment(segment);
+                notifyMoved(segment, moved);
+                bytesMoved += segment.getSize();
+            }
+        }
+        return bytesMoved;
+    }
+
+    // Picks the address window of at least requiredSize that holds the fewest
+    // allocated bytes and whose segments all fit into holes outside it, then
+    // moves those blockers out (largest first, best fit) so the window
+    // coalesces into one free block. Returns 0 if no window can be cleared.
+    private int compactSmallestBlockers(int requiredSize) {
+        MemorySegment[] layout = memorySegments.values().toArray(new MemorySegment[0]);
+        int n = layout.length;
+        long[] allocatedBefore = new long[n + 1];
+        for (int i = 0; i < n; i++) {
+            allocatedBefore[i + 1] = allocatedBefore[i] + (layout[i].isAllocated() ? layout[i].getSize() : 0);
+        }
+
+        // Shortest window starting at each segment, as (cost, first, last)
+        List<long[]> windows = new ArrayList<>();
+        int last = 0;
+        for (int first = 0; first < n; first++) {
+            last = Math.max(last, first);
+            while (last < n && layout[last].getEndAddress() - layout[first].getStartAddress() + 1 < requiredSize) {
+                last++;
+            }
+            if (last == n) {
+                break;
+            }
+            windows.add(new long[] {allocatedBefore[last + 1] - allocatedBefore[first], first, last});
+        }
+        windows.sort(Comparator.comparingLong(w -> w[0]));
+
+        for (long[] window : windows) {
+            int first = (int) window[1];
+            int lastIndex = (int) window[2];
+            List<MemorySegment> blockers = new ArrayList<>();
+            for (int i = first; i <= lastIndex; i++) {
+                if (layout[i].isAllocated()) {
+                    blockers.add(layout[i]);
+                }
+            }
+            blockers.sort(Comparator.comparingInt(MemorySegment::getSize).reversed());
+            int from = layout[first].getStartAddress();
+            int to = layout[lastIndex].getEndAddress();
+            if (!fitsOutside(blockers, from, to)) {
+                continue;
             }
+
+            // Place every copy before releasing the originals so the window
+            // cannot merge with a hole outside it that a later blocker needs
+            int bytesMoved = 0;
+            List<MemorySegment> copies = new ArrayList<>();
+            for (MemorySegment blocker : blockers) {
+                copies.add(placeCopy(blocker, freeBlocks.bestFitOutside(blocker.getSize(), from, to)));
+                bytesMoved += blocker.getSize();
+            }
+            for (int i = 0; i < blockers.size(); i++) {
+                releaseSegment(blockers.get(i));
+                notifyMoved(blockers.get(i), copies.get(i));
+            }
+            return bytesMoved;
+        }
+        return 0;
+    }
+
+    // Replays best-fit placement of the blockers on the sizes of holes outside [from, to]
+    private boolean fitsOutside(List<MemorySegment> blockers, int from, int to) {
+        TreeMap<Integer, Integer> holeSizes = new TreeMap<>();
+        for (MemorySegment block : memorySegments.values()) {
+            if (!block.isAllocated() && (block.getStartAddress() < from || block.getStartAddress() > to)) {
+                holeSizes.merge(block.getSize(), 1, Integer::sum);
+            }
+        }
+        for (MemorySegment blocker : blockers) {
+            Integer size = holeSizes.ceilingKey(blocker.getSize());
+            if (size == null) {
+                return false;
+            }
+            holeSizes.merge(size, -1, (a, b) -> a + b == 0 ? null : a + b);
+            if (size > blocker.getSize()) {
+                holeSizes.merge(size - blocker.getSize(), 1, Integer::sum);
+            }
+        }
+        return true;
+    }
+
+    // Copies an allocated segment to the start of a free block that fits it and
+    // hands the process the copy; the original stays in place for the caller
+    // to release
+    private MemorySegment placeCopy(MemorySegment segment, MemorySegment hole) {
+        removeFreeBlock(hole);
+        MemorySegment moved = new MemorySegment(
+            hole.getStartAddress(), segment.getSize(), segment.getProcessId(), segment.getSegmentType()
+        );
+        memorySegments.put(moved.getStartAddress(), moved);
+        if (hole.getSize() > segment.getSize()) {
+            addFreeBlock(new MemorySegment(
+                hole.getStartAddress() + segment.getSize(), hole.getSize() - segment.getSize()
+            ));
+        }
+        replaceProcessSegment(segment, moved);
+        return moved;
+    }
+
+    // One bounded round of sliding compaction: the allocated segment right above
+    // the lowest hole slides down into it, repeatedly, until the next move would
+    // exceed maxBytes. A segment larger than maxBytes is never moved by a step;
+    // sliding carries on from the hole above it, and only compact() moves it.
+    // The segment map, free index and process segments are consistent after
+    // every step. Returns the bytes moved.
+    public synchronized int compactStep(int maxBytes) {
+        int bytesMoved = slide(maxBytes, 0);
+        recordBytesMoved(bytesMoved);
+        return bytesMoved;
+    }
+
+    // Slides segments down into the lowest hole until the budget runs out, a
+    // block of requiredSize exists (if positive) or memory is compacted
+    private int slide(int maxBytes, int requiredSize) {
+        int bytesMoved = 0;
+        MemorySegment hole = freeBlocks.lowest();
+        while (hole != null && (requiredSize <= 0 || freeBlocks.largestSize() < requiredSize)) {
+            MemorySegment segment = memorySegments.get(hole.getEndAddress() + 1);
+            if (segment == null) {
+                break; // the hole is at the top: compacted as far as the budget allows
+            }
+            if (segment.getSize() > maxBytes) {
+                // Leave it and its hole; slide what lies above into the next hole
+                hole = freeBlocks.firstFitFrom(1, segment.getEndAddress() + 1);
+                continue;
+            }
+            if ((long) bytesMoved + segment.getSize() > maxBytes) {
+                break;
+            }
+            hole = slideDown(segment, hole);
+            bytesMoved += segment.getSize();
         }
+        return bytesMoved;
+    }
+
+    public synchronized boolean isCompacted() {
+        MemorySegment hole = freeBlocks.lowest();
+        return hole == null || !memorySegments.containsKey(hole.getEndAddress() + 1);
+    }
+
+    // Moves an allocated segment into the free block directly below it; the
+    // free space ends up above the segment and merges with what follows.
+    // Returns that free block.
+    private MemorySegment slideDown(MemorySegment segment, MemorySegment hole) {
+        removeFreeBlock(hole);
+        memorySegments.remove(segment.getStartAddress());
         
-        memorySegments = merged;
+        MemorySegment moved = new MemorySegment(
+            hole.getStartAddress(), segment.getSize(), segment.getProcessId(), segment.getSegmentType()
+        );
+        memorySegments.put(moved.getStartAddress(), moved);
+        replaceProcessSegment(segment, moved);
+        
+        int freeStart = moved.getEndAddress() + 1;
+        int freeSize = hole.getSize();
+        MemorySegment following = freeBlocks.startingAt(segment.getEndAddress() + 1);
+        if (following != null) {
+            removeFreeBlock(following);
+            freeSize += following.getSize();
+        }
+        MemorySegment freed = new MemorySegment(freeStart, freeSize);
+        addFreeBlock(freed);
+        notifyMoved(segment, moved);
+        return freed;
+    }
+
+    private void replaceProcessSegment(MemorySegment from, MemorySegment to) {
+        List<MemorySegment> segments = processSegments.get(from.getProcessId());
+        if (segments != null) {
+            int index = segments.indexOf(from);
+            if (index >= 0) {
+                segments.set(index, to);
+            }
+        }
     }
 
-    private void sortSegments() {
-        memorySegments.sort(Comparator.comparingInt(MemorySegment::getStartAddress));
+    private void recordBytesMoved(int bytesMoved) {
+        lastCompactionBytesMoved = bytesMoved;
+        totalBytesMoved += bytesMoved;
+        metrics.recordCompaction(bytesMoved);
     }
 
-    public List<MemorySegment> getMemorySegments() {
-        return new ArrayList<>(memorySegments);
+    // Policy used when best fit fails and no step limit is set
+    public synchronized void setCompactionPolicy(CompactionPolicy policy) {
+        this.compactionPolicy = policy;
+    }
+
+    public synchronized CompactionPolicy getCompactionPolicy() {
+        return compactionPolicy;
+    }
+
+    // Bytes one allocation may move when best fit fails; 0 defers to the compaction policy
+    public synchronized void setCompactionStepLimit(int maxBytes) {
+        this.compactionStepLimit = Math.max(0, maxBytes);
+    }
+
+    public synchronized int getCompactionStepLimit() {
+        return compactionStepLimit;
+    }
+
+    public synchronized int getLastCompactionBytesMoved() {
+        return lastCompactionBytesMoved;
+    }
+
+    public synchronized long getTotalBytesMoved() {
+        return totalBytesMoved;
+    }
+
+    public synchronized void setMetrics(MemoryMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    public synchronized MemoryMetrics getMetrics() {
+        return metrics;
+    }
+
+    private void notifyMoved(MemorySegment from, MemorySegment to) {
+        for (RelocationListener listener : relocationListeners) {
+            listener.segmentMoved(from, to);
+        }
+    }
+
+    public synchronized void addRelocationListener(RelocationListener listener) {
+        relocationListeners.add(listener);
+    }
+
+    public synchronized void removeRelocationListener(RelocationListener listener) {
+        relocationListeners.remove(listener);
+    }
+
+    public synchronized List<MemorySegment> getMemorySegments() {
+        return new ArrayList<>(memorySegments.values());
     }
 
     public int getTotalMemory() {
         return totalMemory;
     }
 
-    public int getFreeMemory() {
-        return memorySegments.stream()
-                .filter(s -> !s.isAllocated())
-                .mapToInt(MemorySegment::getSize)
-                .sum();
+    public synchronized int getFreeMemory() {
+        return (int) freeBlocks.freeBytes();
     }
 
-    public double getFragmentation() {
-        List<MemorySegment> freeSegments = memorySegments.stream()
-                .filter(s -> !s.isAllocated())
-                .collect(ArrayList::new, ArrayList::add, ArrayList::addAll);
-        
-        if (freeSegments.isEmpty()) return 0.0;
-        
-        int totalFree = freeSegments.stream().mapToInt(MemorySegment::getSize).sum();
-        int largestFree = freeSegments.stream().mapToInt(MemorySegment::getSize).max().orElse(0);
-        
-        return totalFree == 0 ? 0.0 : (double)(totalFree - largestFree) / totalFree * 100;
+    public synchronized int getFreeBlockCount() {
+        return freeBlocks.size();
+    }
+
+    public synchronized int getLargestFreeBlock() {
+        return freeBlocks.largestSize();
+    }
+
+    // Allocated and free segments together
+    public synchronized int getSegmentCount() {
+        return memorySegments.size();
+    }
+
+    // Share of free memory outside the largest free block
+    public synchronized double getFragmentation() {
+        long totalFree = freeBlocks.freeBytes();
+        return totalFree == 0 ? 0.0 : (double) (totalFree - freeBlocks.largestSize()) / totalFree * 100;
     }
 
-    public Map<Integer, List<MemorySegment>> getProcessSegments() {
+    public synchronized Map<Integer, List<MemorySegment>> getProcessSegments() {
         return new HashMap<>(processSegments);
     }
 }
\ No newline at end of file
@@ -0,0 +1,354 @@
+package memory;
+
+import java.util.*;
+
+// Object caches on top of SegmentationManager. Each cache serves one object
+// size out of fixed-size slabs carved from large segments; a slab tracks its
+// free objects in a bitmap and sits on the cache's partial, full or empty
+// list. Allocation takes the first partial (or empty) slab, so it does not
+// depend on the number of slabs. Objects are named by handles
+// (generation, slab id, index) so compaction can move slabs underneath them;
+// a slab id's generation goes up every time the id is reused, so a stale
+// handle to a released slab never reaches the slab that took its id. All
+// state is guarded by the segmentation manager's monitor, which relocation
+// callbacks already hold, so the two never lock in opposite orders.
+//
+// This is a library layer: process allocation in MemoryManager does not go
+// through it, callers use getSlabAllocator() directly.
+public final class SlabAllocator implements SegmentationManager.RelocationListener {
+    public static final int SLAB_OWNER_ID = 0; // owner id of slab segments
+    public static final int DEFAULT_SLAB_SIZE = 64; // KB
+    public static final long NO_OBJECT = -1;
+
+    // handle = generation:23 | slab id:24 | index:16
+    private static final int INDEX_BITS = 16;
+    private static final int ID_BITS = 24;
+    private static final int GENERATION_BITS = 23;
+    private static final int MAX_OBJECTS_PER_SLAB = 1 << INDEX_BITS;
+
+    public enum SlabState {
+        EMPTY, PARTIAL, FULL
+    }
+
+    private final SegmentationManager segmentationManager;
+    private final int slabSize;
+    private final Map<Integer, SlabCache> caches; // object size -> cache
+    private final List<Slab> slabs;               // slab id -> slab, null once released
+    private final Deque<Integer> freeSlabIds;
+    private int[] generations;                    // slab id -> current generation
+    private final Map<Integer, Slab> slabsByStart;
+
+    private static class Slab {
+        final int id;
+        final int generation;
+        final SlabCache cache;
+        final long[] freeBits;
+        int start;
+        int freeCount;
+        SlabState state;
+        Slab prev;
+        Slab next;
+
+        Slab(int id, int generation, int start, SlabCache cache) {
+            this.id = id;
+            this.generation = generation;
+            this.start = start;
+            this.cache = cache;
+            this.freeBits = new long[(cache.objectsPerSlab + 63) >>> 6];
+            for (int i = 0; i < cache.objectsPerSlab; i += 64) {
+                int span = Math.min(64, cache.objectsPerSlab - i);
+                freeBits[i >>> 6] = span == 64 ? -1L : (1L << span) - 1;
+            }
+            this.freeCount = cache.objectsPerSlab;
+            this.state = SlabState.EMPTY;
+        }
+
+        int takeFreeObject() {
+            for (int w = 0; w < freeBits.length; w++) {
+                long word = freeBits[w];
+                if (word != 0) {
+                    freeBits[w] = word & (word - 1);
+                    freeCount--;
+                    return (w << 6) + Long.numberOfTrailingZeros(word);
+                }
+            }
+            return -1;
+        }
+
+        boolean release(int index) {
+            long bit = 1L << index;
+            if ((freeBits[index >>> 6] & bit) != 0) {
+                return false; // already free
+            }
+            freeBits[index >>> 6] |= bit;
+            freeCount++;
+            return true;
+        }
+    }
+
+    // Intrusive list of slabs in one state
+    private static class SlabList {
+        Slab head;
+        int size;
+
+        void add(Slab slab) {
+            slab.prev = null;
+            slab.next = head;
+            if (head != null) {
+                head.prev = slab;
+            }
+            head = slab;
+            size++;
+        }
+
+        void remove(Slab slab) {
+            if (slab.prev == null) {
+                head = slab.next;
+            } else {
+                slab.prev.next = slab.next;
+            }
+            if (slab.next != null) {
+                slab.next.prev = slab.prev;
+            }
+            slab.prev = null;
+            slab.next = null;
+            size--;
+        }
+    }
+
+    private static class SlabCache {
+        final int objectSize;
+        final int objectsPerSlab;
+        final SlabList partial = new SlabList();
+        final SlabList full = new SlabList();
+        final SlabList empty = new SlabList();
+        long objectsInUse;
+
+        SlabCache(int objectSize, int objectsPerSlab) {
+            this.objectSize = objectSize;
+            this.objectsPerSlab = objectsPerSlab;
+        }
+
+        SlabList listFor(SlabState state) {
+            switch (state) {
+                case PARTIAL:
+                    return partial;
+                case FULL:
+                    return full;
+                default:
+                    return empty;
+            }
+        }
+
+        int slabCount() {
+            return partial.size + full.size + empty.size;
+        }
+    }
+
+    public SlabAllocator(SegmentationManager segmentationManager, int slabSize) {
+        this.segmentationManager = segmentationManager;
+        this.slabSize = slabSize;
+        this.caches = new TreeMap<>();
+        this.slabs = new ArrayList<>();
+        this.freeSlabIds = new ArrayDeque<>();
+        this.generations = new int[16];
+        this.slabsByStart = new HashMap<>();
+        segmentationManager.addRelocationListener(this);
+    }
+
+    // Handle of a new object of the given size, or NO_OBJECT when no slab can be had
+    public long allocate(int objectSize) {
+        synchronized (segmentationManager) {
+            if (objectSize <= 0 || objectSize > slabSize) {
+                return NO_OBJECT;
+            }
+            SlabCache cache = caches.computeIfAbsent(objectSize,
+                    size -> new SlabCache(size, Math.min(MAX_OBJECTS_PER_SLAB, slabSize / size)));
+
+            Slab slab = cache.partial.head != null ? cache.partial.head : cache.empty.head;
+            if (slab == null) {
+                slab = grow(cache);
+                if (slab == null) {
+                    return NO_OBJECT;
+                }
+            }
+
+            int index = slab.takeFreeObject();
+            cache.objectsInUse++;
+            updateState(slab);
+            return ((long) slab.generation << (ID_BITS + INDEX_BITS)) | ((long) slab.id << INDEX_BITS) | index;
+        }
+    }
+
+    public void free(long handle) {
+        synchronized (segmentationManager) {
+            Slab slab = slabFor(handle);
+            if (slab == null || !slab.release((int) handle & (MAX_OBJECTS_PER_SLAB - 1))) {
+                return;
+            }
+            slab.cache.objectsInUse--;
+            updateState(slab);
+
+            // Keep one empty slab per cache for reuse, give the rest back
+            if (slab.state == SlabState.EMPTY && slab.cache.empty.size > 1) {
+                releaseSlab(slab);
+            }
+        }
+    }
+
+    public int getAddress(long handle) {
+        synchronized (segmentationManager) {
+            Slab slab = slabFor(handle);
+            if (slab == null) {
+                return -1;
+            }
+            return slab.start + ((int) handle & (MAX_OBJECTS_PER_SLAB - 1)) * slab.cache.objectSize;
+        }
+    }
+
+    // Returns every empty slab to the segmentation manager
+    public void shrink() {
+        synchronized (segmentationManager) {
+            for (SlabCache cache : caches.values()) {
+                while (cache.empty.head != null) {
+                    releaseSlab(cache.empty.head);
+                }
+            }
+        }
+    }
+
+    private Slab grow(SlabCache cache) {
+        int start = segmentationManager.allocateSegment(SLAB_OWNER_ID, slabSize, "SLAB");
+        if (start < 0) {
+            return null;
+        }
+        int id = freeSlabIds.isEmpty() ? slabs.size() : freeSlabIds.pop();
+        if (id >= 1 << ID_BITS) {
+            segmentationManager.freeSegment(SLAB_OWNER_ID, start);
+            return null; // out of handle space
+        }
+        if (id == slabs.size()) {
+            slabs.add(null);
+            if (id == generations.length) {
+                generations = Arrays.copyOf(generations, id * 2);
+            }
+        }
+        Slab slab = new Slab(id, generations[id], start, cache);
+        slabs.set(id, slab);
+        slabsByStart.put(start, slab);
+        cache.empty.add(slab);
+        return slab;
+    }
+
+    private void releaseSlab(Slab slab) {
+        slab.cache.listFor(slab.state).remove(slab);
+        slabsByStart.remove(slab.start);
+        slabs.set(slab.id, null);
+        generations[slab.id] = (generations[slab.id] + 1) & ((1 << GENERATION_BITS) - 1);
+        freeSlabIds.push(slab.id);
+        segmentationManager.freeSegment(SLAB_OWNER_ID, slab.start);
+    }
+
+    private void updateState(Slab slab) {
+        SlabState state = slab.freeCount == 0 ? SlabState.FULL
+                : slab.freeCount == slab.cache.objectsPerSlab ? SlabState.EMPTY
+                : SlabState.PARTIAL;
+        if (state != slab.state) {
+            slab.cache.listFor(slab.state).remove(slab);
+            slab.cache.listFor(state).add(slab);
+            slab.state = state;
+        }
+    }
+
+    // The live slab the handle names, or null if the handle is stale
+    private Slab slabFor(long handle) {
+        if (handle < 0) {
+            return null;
+        }
+        int id = (int) (handle >>> INDEX_BITS) & ((1 << ID_BITS) - 1);
+        int generation = (int) (handle >>> (ID_BITS + INDEX_BITS));
+        Slab slab = id < slabs.size() ? slabs.get(id) : null;
+        return slab != null && slab.generation == generation ? slab : null;
+    }
+
+    @Override
+    public void segmentMoved(SegmentationManager.MemorySegment from, SegmentationManager.MemorySegment to) {
+        synchronized (segmentationManager) {
+            if (from.getProcessId() != SLAB_OWNER_ID) {
+                return;
+            }
+            Slab slab = slabsByStart.remove(from.getStartAddress());
+            if (slab != null) {
+                slab.start = to.getStartAddress();
+                slabsByStart.put(slab.start, slab);
+            }
+        }
+    }
+
+    public int getSlabSize() {
+        return slabSize;
+    }
+
+    public int getSlabCount() {
+        synchronized (segmentationManager) {
+            return slabsByStart.size();
+        }
+    }
+
+    // Share of slab memory holding live objects
+    public double getUtilization() {
+        synchronized (segmentationManager) {
+            long slabBytes = (long) getSlabCount() * slabSize;
+            long usedBytes = 0;
+            for (SlabCache cache : caches.values()) {
+                usedBytes += cache.objectsInUse * cache.objectSize;
+            }
+            return slabBytes == 0 ? 0.0 : (double) usedBytes / slabBytes * 100;
+        }
+    }
+
+    public List<CacheStats> getCacheStats() {
+        synchronized (segmentationManager) {
+            List<CacheStats> stats = new ArrayList<>();
+            for (SlabCache cache : caches.values()) {
+                stats.add(new CacheStats(cache.objectSize, cache.objectsPerSlab, cache.objectsInUse,
+                        cache.empty.size, cache.partial.size, cache.full.size, slabSize));
+            }
+            return stats;
+        }
+    }
+
+    public static class CacheStats {
+        private int objectSize;
+        private int objectsPerSlab;
+        private long objectsInUse;
+        private int emptySlabs;
+        private int partialSlabs;
+        private int fullSlabs;
+        private int slabSize;
+
+        public CacheStats(int objectSize, int objectsPerSlab, long objectsInUse,
+                          int emptySlabs, int partialSlabs, int fullSlabs, int slabSize) {
+            this.objectSize = objectSize;
+            this.objectsPerSlab = objectsPerSlab;
+            this.objectsInUse = objectsInUse;
+            this.emptySlabs = emptySlabs;
+            this.partialSlabs = partialSlabs;
+            this.fullSlabs = fullSlabs;
+            this.slabSize = slabSize;
+        }
+
+        // Getters
+        public int getObjectSize() { return objectSize; }
+        public int getObjectsPerSlab() { return objectsPerSlab; }
+        public long getObjectsInUse() { return objectsInUse; }
+        public int getEmptySlabs() { return emptySlabs; }
+        public int getPartialSlabs() { return partialSlabs; }
+        public int getFullSlabs() { return fullSlabs; }
+        public int getTotalSlabs() { return emptySlabs + partialSlabs + fullSlabs; }
+        public double getUtilization() {
+            long slabBytes = (long) getTotalSlabs() * slabSize;
+            return slabBytes == 0 ? 0.0 : (double) objectsInUse * objectSize / slabBytes * 100;
+        }
+    }
+}
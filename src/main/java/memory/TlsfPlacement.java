@@ -0,0 +1,144 @@
+package memory;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+// Two-Level Segregated Fit. Free blocks sit in bins picked by the position
+// of their highest set bit (first level) and the next SL_BITS bits (second
+// level), one bitmap word per level. A request is rounded up to the next
+// bin boundary so any block in a non-empty bin at or above it fits; finding
+// that bin takes two find-first-set operations, and inserting or removing a
+// block is a list splice plus a hash map update. Only the lookup is constant
+// time: SegmentationManager still keeps its FreeBlockIndex trees in step on
+// every change. When no bin at or above the rounded size has a block, the
+// first OWN_BIN_PROBES blocks of the request's own bin are tried. Real TLSF
+// gives up there; the probe keeps select constant time but may miss a block
+// further down the bin, so an allocation can fail that first fit would place.
+class TlsfPlacement implements PlacementStrategy {
+    private static final int SL_BITS = 4;
+    private static final int SL_COUNT = 1 << SL_BITS;
+    private static final int FL_COUNT = 32 - SL_BITS;
+    private static final int OWN_BIN_PROBES = 4;
+
+    private final Node[][] bins;
+    private final int[] slBitmaps;
+    private final Map<Integer, Node> nodes; // start address -> node
+    private int flBitmap;
+
+    private static class Node {
+        final SegmentationManager.MemorySegment block;
+        final int fl;
+        final int sl;
+        Node prev;
+        Node next;
+
+        Node(SegmentationManager.MemorySegment block, int fl, int sl) {
+            this.block = block;
+            this.fl = fl;
+            this.sl = sl;
+        }
+    }
+
+    TlsfPlacement() {
+        this.bins = new Node[FL_COUNT][SL_COUNT];
+        this.slBitmaps = new int[FL_COUNT];
+        this.nodes = new HashMap<>();
+    }
+
+    @Override
+    public void blockAdded(SegmentationManager.MemorySegment block) {
+        int size = block.getSize();
+        Node node = new Node(block, firstLevel(size), secondLevel(size));
+        node.next = bins[node.fl][node.sl];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        bins[node.fl][node.sl] = node;
+        slBitmaps[node.fl] |= 1 << node.sl;
+        flBitmap |= 1 << node.fl;
+        nodes.put(block.getStartAddress(), node);
+    }
+
+    @Override
+    public void blockRemoved(SegmentationManager.MemorySegment block) {
+        Node node = nodes.remove(block.getStartAddress());
+        if (node == null) {
+            return;
+        }
+        if (node.prev == null) {
+            bins[node.fl][node.sl] = node.next;
+        } else {
+            node.prev.next = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        if (bins[node.fl][node.sl] == null) {
+            slBitmaps[node.fl] &= ~(1 << node.sl);
+            if (slBitmaps[node.fl] == 0) {
+                flBitmap &= ~(1 << node.fl);
+            }
+        }
+    }
+
+    @Override
+    public SegmentationManager.MemorySegment select(int size) {
+        if (size <= 0) {
+            return null;
+        }
+        // Round up so every block of the bin found is large enough
+        long rounded = size;
+        if (size >= SL_COUNT) {
+            rounded = size + (1L << (highBit(size) - SL_BITS)) - 1;
+        }
+        if (rounded <= Integer.MAX_VALUE) {
+            int fl = firstLevel((int) rounded);
+            int sl = secondLevel((int) rounded);
+
+            int slMap = slBitmaps[fl] & (-1 << sl);
+            if (slMap == 0) {
+                int flMap = fl + 1 < FL_COUNT ? flBitmap & (-1 << (fl + 1)) : 0;
+                if (flMap != 0) {
+                    fl = Integer.numberOfTrailingZeros(flMap);
+                    slMap = slBitmaps[fl];
+                }
+            }
+            if (slMap != 0) {
+                return bins[fl][Integer.numberOfTrailingZeros(slMap)].block;
+            }
+        }
+
+        // Rounding skipped the request's own bin; a block near its head may still fit
+        Node node = bins[firstLevel(size)][secondLevel(size)];
+        for (int probe = 0; node != null && probe < OWN_BIN_PROBES; node = node.next, probe++) {
+            if (node.block.getSize() >= size) {
+                return node.block;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void clear() {
+        for (Node[] row : bins) {
+            Arrays.fill(row, null);
+        }
+        Arrays.fill(slBitmaps, 0);
+        flBitmap = 0;
+        nodes.clear();
+    }
+
+    // Sizes below SL_COUNT share first level 0, one second-level bin per size
+    private static int firstLevel(int size) {
+        return size < SL_COUNT ? 0 : highBit(size) - SL_BITS + 1;
+    }
+
+    private static int secondLevel(int size) {
+        return size < SL_COUNT ? size : (size >>> (highBit(size) - SL_BITS)) ^ SL_COUNT;
+    }
+
+    private static int highBit(int size) {
+        return 31 - Integer.numberOfLeadingZeros(size);
+    }
+}
@@ -0,0 +1,448 @@
+package sim;
+
+import memory.MemoryManager;
+import memory.MemoryMetrics;
+import memory.PagingManager;
+import memory.Process;
+import memory.SegmentationManager;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+
+// Runs workloads against a MemoryManager without Swing, as fast as the events
+// can be applied, and writes one row of statistics per configuration as CSV
+// or JSON. Every configuration option takes a comma separated list; the runner
+// sweeps their cross product.
+//
+//   java sim.HeadlessRunner [options]     (or: java Main --headless [options])
+public class HeadlessRunner {
+    private static final int SAMPLE_INTERVAL = 256; // events between utilization samples
+
+    private static final String USAGE = String.join(System.lineSeparator(),
+            "Usage: --headless [options]",
+            "Machine (comma separated values are swept):",
+            "  --memory KB            total memory (default 65536)",
+            "  --page-size KB         page size (default 4)",
+            "  --type T               " + choices(MemoryManager.MemoryType.values()) + " (default PAGING)",
+            "  --algorithm A          " + choices(PagingManager.ReplacementAlgorithm.values()) + " (default FIFO)",
+            "  --frames F             " + choices(PagingManager.FrameAllocation.values())
+                    + " frame allocation (default SCATTERED)",
+            "  --placement P          " + choices(SegmentationManager.PlacementPolicy.values()) + " (default BEST_FIT)",
+            "  --compaction C         " + choices(SegmentationManager.CompactionPolicy.values()) + " (default FULL)",
+            "Workload:",
+            "  --workload FILE        replay a workload file (start/touch/end lines)",
+            "  --trace FILE           replay a page-reference trace under demand paging",
+            "  --trace-format F       text or binary (default: binary for .bin/.trc files)",
+            "  otherwise a synthetic workload:",
+            "  --processes N          (default 10000)",
+            "  --rate R               arrivals per simulated second (default 5000)",
+            "  --lifetime MS          mean lifetime in simulated ms (default 50)",
+            "  --size MIN-MAX         process size in KB (default 16-256)",
+            "  --touches N            page touches per process (default 32)",
+            "  --write-ratio X        (default 0.3)",
+            "  --seed S               (default 42)",
+            "Output:",
+            "  --format csv|json      (default csv)",
+            "  --output FILE          (default standard output)");
+
+    private final SimulationConfig config;
+
+    // "A, B or C" from an enum's constants, so the usage text cannot go stale
+    private static String choices(Enum<?>[] values) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                text.append(i == values.length - 1 ? " or " : ", ");
+            }
+            text.append(values[i].name());
+        }
+        return text.toString();
+    }
+
+    public HeadlessRunner(SimulationConfig config) {
+        this.config = config;
+    }
+
+    // Replays the workload to its end on a fresh MemoryManager
+    public Result run(Workload workload) throws IOException {
+        MemoryManager memoryManager = config.createMemoryManager();
+        PagingManager pagingManager = memoryManager.getPagingManager();
+        boolean paging = config.getMemoryType() == MemoryManager.MemoryType.PAGING;
+        Map<Integer, Process> live = new HashMap<>();
+        Result result = new Result(config);
+        Workload.Event event = new Workload.Event();
+
+        long start = System.nanoTime();
+        while (workload.next(event)) {
+            result.events++;
+            Process process = live.get(event.getId());
+            switch (event.getType()) {
+                case START:
+                    if (process != null) {
+                        throw new IOException("process " + event.getId() + " started twice");
+                    }
+                    result.processes++;
+                    process = memoryManager.createProcess("P" + event.getId(), event.getSize(), 1);
+                    long begin = System.nanoTime();
+                    boolean allocated = memoryManager.allocateMemory(process);
+                    long latency = System.nanoTime() - begin;
+                    if (allocated) {
+                        result.addLatency(latency);
+                        live.put(event.getId(), process);
+                        result.peakProcesses = Math.max(result.peakProcesses, live.size());
+                    } else {
+                        memoryManager.terminateProcess(process.getProcessId());
+                    }
+                    break;
+                case TOUCH:
+                    if (process == null) {
+                        break; // never allocated
+                    }
+                    result.touches++;
+                    if (paging) {
+                        int page = event.getPage() % process.getPagesNeeded(pagingManager.getPageSize());
+                        if (!pagingManager.accessProcessPage(process, page, event.isWrite())) {
+                            result.faults++;
+                        }
+                    }
+                    break;
+                case END:
+                    if (process != null) {
+                        live.remove(event.getId());
+                        memoryManager.terminateProcess(process.getProcessId());
+                    }
+                    break;
+            }
+            if (result.events % SAMPLE_INTERVAL == 0) {
+                result.sample(memoryManager.getMemoryStats());
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        result.compactionBytesMoved = memoryManager.getSegmentationManager().getTotalBytesMoved();
+        result.metrics = memoryManager.getMetrics().snapshot();
+        return result;
+    }
+
+    public static class Result {
+        private final SimulationConfig config;
+        private long events;
+        private int processes;
+        private long touches;
+        private long faults;
+        private int peakProcesses;
+        private long elapsedNanos;
+        private long compactionBytesMoved;
+        private MemoryMetrics.Snapshot metrics;
+        private long[] latencies = new long[1024]; // nanoseconds, sorted once the run is done
+        private int allocated;
+        private boolean sorted;
+        private int samples;
+        private double utilizationSum;
+        private double peakUtilization;
+        private double fragmentationSum;
+
+        Result(SimulationConfig config) {
+            this.config = config;
+        }
+
+        void addLatency(long nanos) {
+            if (allocated == latencies.length) {
+                latencies = Arrays.copyOf(latencies, allocated * 2);
+            }
+            latencies[allocated++] = nanos;
+            sorted = false;
+        }
+
+        void sample(MemoryManager.MemoryStats stats) {
+            samples++;
+            utilizationSum += stats.getUtilization();
+            peakUtilization = Math.max(peakUtilization, stats.getUtilization());
+            fragmentationSum += stats.getFragmentation();
+        }
+
+        // Getters
+        public SimulationConfig getConfig() { return config; }
+        public long getEvents() { return events; }
+        public int getProcesses() { return processes; }
+        public int getAllocated() { return allocated; }
+        public int getFailed() { return processes - allocated; }
+        public long getTouches() { return touches; }
+        public long getFaults() { return faults; }
+        public int getPeakProcesses() { return peakProcesses; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getCompactionBytesMoved() { return compactionBytesMoved; }
+        public MemoryMetrics.Snapshot getMetrics() { return metrics; }
+        public double getEventsPerSecond() { return elapsedNanos == 0 ? 0 : events / (elapsedNanos / 1e9); }
+        public double getAverageUtilization() { return samples == 0 ? 0 : utilizationSum / samples; }
+        public double getPeakUtilization() { return peakUtilization; }
+        public double getAverageFragmentation() { return samples == 0 ? 0 : fragmentationSum / samples; }
+
+        // Allocation latency at the given percentile (0-100), in nanoseconds
+        public long getLatencyPercentile(double percentile) {
+            if (allocated == 0) {
+                return 0;
+            }
+            if (!sorted) {
+                Arrays.sort(latencies, 0, allocated);
+                sorted = true;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * allocated);
+            return latencies[Math.max(0, Math.min(allocated - 1, rank - 1))];
+        }
+
+        // Column name to value, in output order
+        public Map<String, Object> toRow() {
+            Map<String, Object> row = config.toRow();
+            row.put("events", events);
+            row.put("processes", processes);
+            row.put("allocated", allocated);
+            row.put("failed", getFailed());
+            row.put("touches", touches);
+            row.put("faults", faults);
+            row.put("peak_processes", peakProcesses);
+            row.put("elapsed_ms", elapsedNanos / 1e6);
+            row.put("events_per_sec", getEventsPerSecond());
+            row.put("alloc_p50_us", getLatencyPercentile(50) / 1e3);
+            row.put("alloc_p99_us", getLatencyPercentile(99) / 1e3);
+            row.put("alloc_max_us", getLatencyPercentile(100) / 1e3);
+            row.put("avg_utilization", getAverageUtilization());
+            row.put("peak_utilization", peakUtilization);
+            row.put("avg_fragmentation", getAverageFragmentation());
+            row.put("compaction_bytes_moved", compactionBytesMoved);
+            row.put("evictions", metrics.getEvictions());
+            row.put("access_p50_ns", metrics.getAccessLatency().getP50());
+            row.put("access_p99_ns", metrics.getAccessLatency().getP99());
+            return row;
+        }
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options;
+        try {
+            options = parseOptions(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(2);
+            return;
+        }
+        if (options.containsKey("help")) {
+            System.out.println(USAGE);
+            return;
+        }
+
+        try {
+            List<SimulationConfig> sweep = sweep(options);
+            String format = options.getOrDefault("format", "csv").toLowerCase();
+            if (!format.equals("csv") && !format.equals("json")) {
+                throw new IllegalArgumentException("Unknown format: " + format);
+            }
+            List<Map<String, Object>> rows = new ArrayList<>();
+            String trace = options.get("trace");
+            for (SimulationConfig config : sweep) {
+                if (trace != null) {
+                    Path path = Paths.get(trace);
+                    TraceReplay.Format traceFormat = options.containsKey("trace-format")
+                            ? TraceReplay.Format.valueOf(options.get("trace-format").toUpperCase())
+                            : TraceReplay.Format.of(path);
+                    rows.add(new TraceReplay(config).replay(path, traceFormat).toRow());
+                    continue;
+                }
+                try (Workload workload = openWorkload(options)) {
+                    rows.add(new HeadlessRunner(config).run(workload).toRow());
+                }
+            }
+
+            String output = options.get("output");
+            if (output == null) {
+                write(rows, format, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+            } else {
+                try (Writer writer = Files.newBufferedWriter(Paths.get(output), StandardCharsets.UTF_8)) {
+                    write(rows, format, writer);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(2);
+        } catch (IOException e) {
+            System.err.println("Error: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.equals("--help") || arg.equals("-h")) {
+                options.put("help", "");
+                continue;
+            }
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + arg);
+            }
+            String name = arg.substring(2);
+            String value;
+            int equals = name.indexOf('=');
+            if (equals >= 0) {
+                value = name.substring(equals + 1);
+                name = name.substring(0, equals);
+            } else if (i + 1 < args.length) {
+                value = args[++i];
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+            options.put(name, value);
+        }
+        return options;
+    }
+
+    private static Workload openWorkload(Map<String, String> options) throws IOException {
+        String file = options.get("workload");
+        if (file != null) {
+            return Workload.fromFile(Paths.get(file));
+        }
+        WorkloadEngine.Config config = new WorkloadEngine.Config();
+        String[] size = options.getOrDefault("size",
+                config.getMinProcessSize() + "-" + config.getMaxProcessSize()).split("-");
+        return Workload.synthetic(config
+                .processCount(Integer.parseInt(options.getOrDefault("processes", "" + config.getProcessCount())))
+                .arrivalRate(Double.parseDouble(options.getOrDefault("rate", "" + config.getArrivalRate())))
+                .meanLifetimeMillis(Double.parseDouble(
+                        options.getOrDefault("lifetime", "" + config.getMeanLifetimeMillis())))
+                .processSize(Integer.parseInt(size[0]), Integer.parseInt(size[size.length - 1]))
+                .touchesPerProcess(Integer.parseInt(options.getOrDefault("touches", "" + config.getTouchesPerProcess())))
+                .writeRatio(Double.parseDouble(options.getOrDefault("write-ratio", "" + config.getWriteRatio())))
+                .seed(Long.parseLong(options.getOrDefault("seed", "" + config.getSeed()))));
+    }
+
+    // Cross product of every swept option
+    private static List<SimulationConfig> sweep(Map<String, String> options) {
+        List<SimulationConfig> configs = new ArrayList<>();
+        configs.add(new SimulationConfig());
+        configs = expand(configs, options.get("memory"), (c, v) -> c.totalMemory(Integer.parseInt(v)));
+        configs = expand(configs, options.get("page-size"), (c, v) -> c.pageSize(Integer.parseInt(v)));
+        configs = expand(configs, options.get("type"), (c, v) -> c.memoryType(
+                MemoryManager.MemoryType.valueOf(v.toUpperCase())));
+        configs = expand(configs, options.get("algorithm"), (c, v) -> c.algorithm(
+                PagingManager.ReplacementAlgorithm.valueOf(v.toUpperCase())));
+        configs = expand(configs, options.get("frames"), (c, v) -> c.frameAllocation(
+                PagingManager.FrameAllocation.valueOf(v.toUpperCase())));
+        configs = expand(configs, options.get("placement"), (c, v) -> c.placement(
+                SegmentationManager.PlacementPolicy.valueOf(v.toUpperCase())));
+        configs = expand(configs, options.get("compaction"), (c, v) -> c.compaction(
+                SegmentationManager.CompactionPolicy.valueOf(v.toUpperCase())));
+        return configs;
+    }
+
+    private interface Setter {
+        void apply(SimulationConfig config, String value);
+    }
+
+    private static List<SimulationConfig> expand(List<SimulationConfig> configs, String values, Setter setter) {
+        if (values == null) {
+            return configs;
+        }
+        List<SimulationConfig> expanded = new ArrayList<>();
+        for (SimulationConfig config : configs) {
+            for (String value : values.split(",")) {
+                SimulationConfig copy = config.copy();
+                setter.apply(copy, value.trim());
+                expanded.add(copy);
+            }
+        }
+        return expanded;
+    }
+
+    public static void write(List<Map<String, Object>> rows, String format, Writer writer) throws IOException {
+        if (format.equals("json")) {
+            writeJson(rows, writer);
+        } else {
+            writeCsv(rows, writer);
+        }
+        writer.flush();
+    }
+
+    private static void writeCsv(List<Map<String, Object>> rows, Writer writer) throws IOException {
+        if (rows.isEmpty()) {
+            return;
+        }
+        writer.write(String.join(",", rows.get(0).keySet()));
+        writer.write(System.lineSeparator());
+        for (Map<String, Object> row : rows) {
+            StringJoiner line = new StringJoiner(",");
+            for (Object value : row.values()) {
+                line.add(csvField(format(value)));
+            }
+            writer.write(line.toString());
+            writer.write(System.lineSeparator());
+        }
+    }
+
+    private static void writeJson(List<Map<String, Object>> rows, Writer writer) throws IOException {
+        writer.write("[");
+        for (int i = 0; i < rows.size(); i++) {
+            writer.write(i == 0 ? System.lineSeparator() : "," + System.lineSeparator());
+            StringJoiner object = new StringJoiner(", ", "  {", "}");
+            for (Map.Entry<String, Object> entry : rows.get(i).entrySet()) {
+                Object value = entry.getValue();
+                String text = value instanceof Number ? format(value) : jsonString(String.valueOf(value));
+                object.add(jsonString(entry.getKey()) + ": " + text);
+            }
+            writer.write(object.toString());
+        }
+        writer.write(System.lineSeparator() + "]" + System.lineSeparator());
+    }
+
+    // Quotes a field holding a comma, quote or line break, doubling its quotes
+    private static String csvField(String text) {
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return "\"" + text.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String jsonString(String text) {
+        StringBuilder json = new StringBuilder(text.length() + 2).append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    private static String format(Object value) {
+        if (value instanceof Double) {
+            double d = (Double) value;
+            return Double.isFinite(d) ? String.format(Locale.ROOT, "%.3f", d) : "0";
+        }
+        return String.valueOf(value);
+    }
+}
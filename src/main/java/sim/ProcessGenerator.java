@@ -0,0 +1,49 @@
+package sim;
+
+import java.util.Random;
+
+// The synthetic process stream behind WorkloadEngine and Workload.synthetic:
+// Poisson arrivals, exponential lifetimes and uniform sizes drawn from one
+// seeded Random, in the same order for both, so a seed describes the same
+// processes whichever runs them. Each process also gets a seed of its own
+// for its page touches. Times are in seconds.
+class ProcessGenerator {
+    private final WorkloadEngine.Config config;
+    private final Random random;
+    private int generated;
+    private double arrival;
+    private double lifetime;
+    private int size;
+    private long touchSeed;
+
+    ProcessGenerator(WorkloadEngine.Config config) {
+        this.config = config;
+        this.random = new Random(config.getSeed());
+    }
+
+    // Draws the next process; false once processCount have been drawn
+    boolean next() {
+        if (generated == config.getProcessCount()) {
+            return false;
+        }
+        generated++;
+        if (config.getArrivalRate() > 0) {
+            arrival += exponential(1 / config.getArrivalRate());
+        }
+        lifetime = exponential(config.getMeanLifetimeMillis() / 1000);
+        size = config.getMinProcessSize()
+                + random.nextInt(Math.max(1, config.getMaxProcessSize() - config.getMinProcessSize() + 1));
+        touchSeed = random.nextLong();
+        return true;
+    }
+
+    private double exponential(double mean) {
+        return -Math.log(1 - random.nextDouble()) * mean;
+    }
+
+    // Getters for the process drawn last
+    double getArrival() { return arrival; }
+    double getLifetime() { return lifetime; }
+    int getSize() { return size; }
+    long getTouchSeed() { return touchSeed; }
+}
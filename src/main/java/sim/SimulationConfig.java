@@ -0,0 +1,69 @@
+package sim;
+
+import memory.MemoryManager;
+import memory.PagingManager;
+import memory.SegmentationManager;
+import java.util.*;
+
+// One point of a parameter sweep: how the simulated machine is set up
+public class SimulationConfig {
+    private int totalMemory = 64 * 1024; // KB
+    private int pageSize = 4; // KB
+    private MemoryManager.MemoryType memoryType = MemoryManager.MemoryType.PAGING;
+    private PagingManager.ReplacementAlgorithm algorithm = PagingManager.ReplacementAlgorithm.FIFO;
+    private PagingManager.FrameAllocation frameAllocation = PagingManager.FrameAllocation.SCATTERED;
+    private SegmentationManager.PlacementPolicy placement = SegmentationManager.PlacementPolicy.BEST_FIT;
+    private SegmentationManager.CompactionPolicy compaction = SegmentationManager.CompactionPolicy.FULL;
+
+    public SimulationConfig copy() {
+        SimulationConfig copy = new SimulationConfig();
+        copy.totalMemory = totalMemory;
+        copy.pageSize = pageSize;
+        copy.memoryType = memoryType;
+        copy.algorithm = algorithm;
+        copy.frameAllocation = frameAllocation;
+        copy.placement = placement;
+        copy.compaction = compaction;
+        return copy;
+    }
+
+    public MemoryManager createMemoryManager() {
+        MemoryManager memoryManager = new MemoryManager(totalMemory, pageSize);
+        memoryManager.setMemoryType(memoryType);
+        memoryManager.getPagingManager().setReplacementAlgorithm(algorithm);
+        memoryManager.setFrameAllocation(frameAllocation);
+        memoryManager.setPlacementPolicy(placement);
+        memoryManager.getSegmentationManager().setCompactionPolicy(compaction);
+        return memoryManager;
+    }
+
+    public SimulationConfig totalMemory(int totalMemory) { this.totalMemory = totalMemory; return this; }
+    public SimulationConfig pageSize(int pageSize) { this.pageSize = pageSize; return this; }
+    public SimulationConfig memoryType(MemoryManager.MemoryType memoryType) { this.memoryType = memoryType; return this; }
+    public SimulationConfig algorithm(PagingManager.ReplacementAlgorithm algorithm) { this.algorithm = algorithm; return this; }
+    public SimulationConfig frameAllocation(PagingManager.FrameAllocation frameAllocation) { this.frameAllocation = frameAllocation; return this; }
+    public SimulationConfig placement(SegmentationManager.PlacementPolicy placement) { this.placement = placement; return this; }
+    public SimulationConfig compaction(SegmentationManager.CompactionPolicy compaction) { this.compaction = compaction; return this; }
+
+    // Configuration columns of a statistics row; callers append their own
+    public Map<String, Object> toRow() {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("memory_kb", totalMemory);
+        row.put("page_size_kb", pageSize);
+        row.put("type", memoryType);
+        row.put("algorithm", algorithm);
+        row.put("frame_allocation", frameAllocation);
+        row.put("placement", placement);
+        row.put("compaction", compaction);
+        return row;
+    }
+
+    // Getters
+    public int getTotalMemory() { return totalMemory; }
+    public int getPageSize() { return pageSize; }
+    public MemoryManager.MemoryType getMemoryType() { return memoryType; }
+    public PagingManager.ReplacementAlgorithm getAlgorithm() { return algorithm; }
+    public PagingManager.FrameAllocation getFrameAllocation() { return frameAllocation; }
+    public SegmentationManager.PlacementPolicy getPlacement() { return placement; }
+    public SegmentationManager.CompactionPolicy getCompaction() { return compaction; }
+}
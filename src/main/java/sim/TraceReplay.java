@@ -0,0 +1,334 @@
+package sim;
+
+import memory.MemoryManager;
+import memory.MemoryMetrics;
+import memory.PagingManager;
+import memory.Process;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+// Streams a page-reference trace through PagingManager.referencePage under
+// demand paging. The file is memory-mapped one chunk at a time, so traces
+// far larger than the heap replay in constant memory. Processes are created
+// on their first reference and start with no pages loaded.
+//
+// Text traces hold one reference per line: [op] [pid] address[,size], with
+// the address in hex (0x optional) and the pid in decimal. Ops W, S and M
+// are writes; R, L, I or none are reads, which also covers Valgrind lackey
+// output. Lines starting with # or = are skipped.
+//
+// Binary traces are 16-byte little-endian records: address (8 bytes),
+// pid (4 bytes), flags (4 bytes, bit 0 = write).
+//
+// OPTIMAL has no reference string to look ahead into here and evicts like LRU.
+//
+//   java sim.TraceReplay <trace> [algorithm] [memoryKB] [pageSizeKB]
+public class TraceReplay {
+    public static final int RECORD_BYTES = 16;
+    private static final long CHUNK_SIZE = 64L << 20; // a multiple of RECORD_BYTES
+
+    public enum Format {
+        TEXT, BINARY;
+
+        // .bin and .trc files are binary, anything else is text
+        public static Format of(Path trace) {
+            String name = trace.getFileName().toString().toLowerCase();
+            return name.endsWith(".bin") || name.endsWith(".trc") ? BINARY : TEXT;
+        }
+    }
+
+    private final SimulationConfig config;
+    private final long pageBytes;
+    private PagingManager pagingManager;
+    private MemoryManager memoryManager;
+    private Map<Integer, Process> processes;
+    private Process lastProcess; // traces tend to stay with one process for a while
+    private int lastPid;
+    private Result result;
+
+    public TraceReplay(SimulationConfig config) {
+        this.config = config.copy().memoryType(MemoryManager.MemoryType.PAGING);
+        this.pageBytes = config.getPageSize() * 1024L;
+    }
+
+    public Result replay(Path trace) throws IOException {
+        return replay(trace, Format.of(trace));
+    }
+
+    public Result replay(Path trace, Format format) throws IOException {
+        memoryManager = config.createMemoryManager();
+        pagingManager = memoryManager.getPagingManager();
+        processes = new HashMap<>();
+        lastProcess = null;
+        result = new Result(config);
+
+        long start = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(trace, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long position = 0;
+            while (position < size) {
+                long length = Math.min(CHUNK_SIZE, size - position);
+                MappedByteBuffer chunk = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+                boolean last = position + length == size;
+                int consumed = format == Format.BINARY
+                        ? replayBinary(chunk, position, last)
+                        : replayText(chunk, position, last);
+                if (consumed == 0) {
+                    throw new IOException(trace + ": line at byte " + position + " is longer than "
+                            + CHUNK_SIZE + " bytes");
+                }
+                position += consumed;
+                result.bytes = position;
+            }
+        }
+        result.elapsedNanos = System.nanoTime() - start;
+        result.processes = processes.size();
+        result.metrics = memoryManager.getMetrics().snapshot();
+        return result;
+    }
+
+    private int replayBinary(ByteBuffer chunk, long position, boolean last) throws IOException {
+        chunk.order(ByteOrder.LITTLE_ENDIAN);
+        int records = chunk.limit() / RECORD_BYTES;
+        if (last && chunk.limit() % RECORD_BYTES != 0) {
+            throw new IOException("trace ends with a partial record at byte "
+                    + (position + (long) records * RECORD_BYTES));
+        }
+        for (int i = 0, offset = 0; i < records; i++, offset += RECORD_BYTES) {
+            reference(chunk.getInt(offset + 8), chunk.getLong(offset), (chunk.getInt(offset + 12) & 1) != 0);
+        }
+        return records * RECORD_BYTES;
+    }
+
+    // Replays every complete line; a line cut off by the chunk end is left
+    // for the next chunk, which starts at that line
+    private int replayText(ByteBuffer chunk, long position, boolean last) throws IOException {
+        int limit = chunk.limit();
+        int lineStart = 0;
+        while (lineStart < limit) {
+            int lineEnd = lineStart;
+            while (lineEnd < limit && chunk.get(lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (lineEnd == limit && !last) {
+                break;
+            }
+            parseLine(chunk, lineStart, lineEnd, position);
+            lineStart = lineEnd + 1;
+        }
+        return Math.min(lineStart, limit);
+    }
+
+    private void parseLine(ByteBuffer chunk, int from, int to, long position) throws IOException {
+        boolean write = false;
+        int numbers = 0;
+        int firstStart = 0, firstEnd = 0, secondStart = 0, secondEnd = 0;
+        int i = from;
+        while (i < to && isSpace(chunk.get(i))) {
+            i++;
+        }
+        if (i < to && (chunk.get(i) == '#' || chunk.get(i) == '=')) {
+            return;
+        }
+        while (i < to) {
+            byte b = chunk.get(i);
+            if (isSpace(b)) {
+                i++;
+                continue;
+            }
+            int tokenEnd = i;
+            while (tokenEnd < to && !isSpace(chunk.get(tokenEnd)) && chunk.get(tokenEnd) != ',') {
+                tokenEnd++;
+            }
+            int op = tokenEnd - i == 1 ? Character.toUpperCase(b) : 0;
+            if (op == 'W' || op == 'S' || op == 'M') {
+                write = true;
+            } else if (op == 'R' || op == 'L' || op == 'I') {
+                // read
+            } else if (numbers == 0) {
+                firstStart = i;
+                firstEnd = tokenEnd;
+                numbers++;
+            } else if (numbers == 1) {
+                secondStart = i;
+                secondEnd = tokenEnd;
+                numbers++;
+            } else {
+                throw malformed(chunk, from, to, position);
+            }
+            // Skip an access size after the address
+            i = tokenEnd;
+            while (i < to && !isSpace(chunk.get(i))) {
+                i++;
+            }
+        }
+        if (numbers == 0) {
+            return; // blank line
+        }
+        int pid = 0;
+        int addressStart = firstStart, addressEnd = firstEnd;
+        if (numbers == 2) {
+            pid = (int) parseDecimal(chunk, firstStart, firstEnd);
+            addressStart = secondStart;
+            addressEnd = secondEnd;
+        }
+        int digits = hexDigits(chunk, addressStart, addressEnd);
+        if (digits < 0 || pid < 0) {
+            throw malformed(chunk, from, to, position);
+        }
+        reference(pid, parseHex(chunk, digits, addressEnd), write);
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    // Where the digits of a hex token start, past an optional 0x, or -1 when
+    // the token is not a hex number of at most 64 bits
+    private static int hexDigits(ByteBuffer chunk, int from, int to) {
+        if (to - from > 2 && chunk.get(from) == '0' && (chunk.get(from + 1) | 0x20) == 'x') {
+            from += 2;
+        }
+        if (from == to || to - from > 16) {
+            return -1;
+        }
+        for (int i = from; i < to; i++) {
+            if (Character.digit(chunk.get(i), 16) < 0) {
+                return -1;
+            }
+        }
+        return from;
+    }
+
+    // The digits checked by hexDigits as an unsigned 64-bit value
+    private static long parseHex(ByteBuffer chunk, int from, int to) {
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            value = value << 4 | Character.digit(chunk.get(i), 16);
+        }
+        return value;
+    }
+
+    private static long parseDecimal(ByteBuffer chunk, int from, int to) {
+        if (from == to || to - from > 9) {
+            return -1;
+        }
+        long value = 0;
+        for (int i = from; i < to; i++) {
+            int digit = chunk.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static IOException malformed(ByteBuffer chunk, int from, int to, long position) {
+        byte[] line = new byte[Math.min(to - from, 200)];
+        chunk.get(from, line);
+        return new IOException("malformed trace line at byte " + (position + from) + ": '"
+                + new String(line, StandardCharsets.UTF_8).trim() + "'");
+    }
+
+    private void reference(int pid, long address, boolean write) {
+        Process process = lastProcess;
+        if (process == null || lastPid != pid) {
+            process = processFor(pid);
+            lastProcess = process;
+            lastPid = pid;
+        }
+        result.references++;
+        if (write) {
+            result.writes++;
+        }
+        // Addresses are unsigned: kernel halves have the top bit set
+        if (!pagingManager.referencePage(process, Long.divideUnsigned(address, pageBytes), write)) {
+            result.faults++;
+        }
+    }
+
+    private Process processFor(int pid) {
+        Process process = processes.get(pid);
+        if (process == null) {
+            process = memoryManager.createProcess("T" + pid, 0, 1);
+            memoryManager.allocateMemory(process);
+            processes.put(pid, process);
+        }
+        return process;
+    }
+
+    public static class Result {
+        private final SimulationConfig config;
+        private long references;
+        private long writes;
+        private long faults;
+        private int processes;
+        private long bytes;
+        private long elapsedNanos;
+        private MemoryMetrics.Snapshot metrics;
+
+        Result(SimulationConfig config) {
+            this.config = config;
+        }
+
+        // Getters
+        public SimulationConfig getConfig() { return config; }
+        public long getReferences() { return references; }
+        public long getWrites() { return writes; }
+        public long getFaults() { return faults; }
+        public long getHits() { return references - faults; }
+        public int getProcesses() { return processes; }
+        public long getBytes() { return bytes; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public MemoryMetrics.Snapshot getMetrics() { return metrics; }
+        public double getHitRatio() { return references == 0 ? 0 : (double) getHits() / references; }
+        public double getReferencesPerSecond() { return elapsedNanos == 0 ? 0 : references / (elapsedNanos / 1e9); }
+
+        public Map<String, Object> toRow() {
+            Map<String, Object> row = config.toRow();
+            row.put("references", references);
+            row.put("writes", writes);
+            row.put("faults", faults);
+            row.put("hits", getHits());
+            row.put("hit_ratio", getHitRatio());
+            row.put("processes", processes);
+            row.put("trace_bytes", bytes);
+            row.put("elapsed_ms", elapsedNanos / 1e6);
+            row.put("refs_per_sec", getReferencesPerSecond());
+            row.put("evictions", metrics.getEvictions());
+            row.put("reference_p50_ns", metrics.getAccessLatency().getP50());
+            row.put("reference_p99_ns", metrics.getAccessLatency().getP99());
+            return row;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("references=%d faults=%d hits=%d hit ratio=%.4f processes=%d%n"
+                    + "%.2fs, %.0f references/s%n"
+                    + "reference latency: %s",
+                    references, faults, getHits(), getHitRatio(), processes,
+                    elapsedNanos / 1e9, getReferencesPerSecond(), metrics.getAccessLatency());
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: java sim.TraceReplay <trace> [algorithm] [memoryKB] [pageSizeKB]");
+            System.exit(2);
+        }
+        SimulationConfig config = new SimulationConfig();
+        if (args.length > 1) config.algorithm(PagingManager.ReplacementAlgorithm.valueOf(args[1].toUpperCase()));
+        if (args.length > 2) config.totalMemory(Integer.parseInt(args[2]));
+        if (args.length > 3) config.pageSize(Integer.parseInt(args[3]));
+        System.out.println(new TraceReplay(config).replay(Paths.get(args[0])));
+    }
+}
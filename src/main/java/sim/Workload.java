@@ -0,0 +1,177 @@
+package sim;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+
+// A stream of process lifecycle events for the headless runner. Ids are
+// workload-local; the runner maps them to simulator processes.
+public abstract class Workload implements AutoCloseable {
+
+    public enum EventType {
+        START, TOUCH, END
+    }
+
+    // Reused between calls to next
+    public static class Event {
+        private EventType type;
+        private int id;
+        private int size;  // START: process size in KB
+        private int page;  // TOUCH: page index, taken modulo the process's page count
+        private boolean write;
+
+        void set(EventType type, int id, int size, int page, boolean write) {
+            this.type = type;
+            this.id = id;
+            this.size = size;
+            this.page = page;
+            this.write = write;
+        }
+
+        // Getters
+        public EventType getType() { return type; }
+        public int getId() { return id; }
+        public int getSize() { return size; }
+        public int getPage() { return page; }
+        public boolean isWrite() { return write; }
+    }
+
+    // Fills event with the next one; false at the end of the workload
+    public abstract boolean next(Event event) throws IOException;
+
+    @Override
+    public void close() throws IOException {
+    }
+
+    // Text workload, one event per line:
+    //   start <id> <sizeKB>
+    //   touch <id> <page> [r|w]
+    //   end <id>
+    // Blank lines and lines starting with # are skipped.
+    public static Workload fromFile(Path path) throws IOException {
+        return new FileWorkload(Files.newBufferedReader(path, StandardCharsets.UTF_8), path.toString());
+    }
+
+    private static class FileWorkload extends Workload {
+        private final BufferedReader reader;
+        private final String name;
+        private int lineNumber;
+
+        FileWorkload(BufferedReader reader, String name) {
+            this.reader = reader;
+            this.name = name;
+        }
+
+        @Override
+        public boolean next(Event event) throws IOException {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                String[] fields = line.split("\\s+");
+                try {
+                    switch (fields[0].toLowerCase()) {
+                        case "start":
+                            event.set(EventType.START, Integer.parseInt(fields[1]), Integer.parseInt(fields[2]), 0, false);
+                            return true;
+                        case "touch":
+                            boolean write = fields.length > 3 && fields[3].equalsIgnoreCase("w");
+                            event.set(EventType.TOUCH, Integer.parseInt(fields[1]), 0, Integer.parseInt(fields[2]), write);
+                            return true;
+                        case "end":
+                            event.set(EventType.END, Integer.parseInt(fields[1]), 0, 0, false);
+                            return true;
+                        default:
+                            throw new IOException(name + ":" + lineNumber + ": unknown event '" + fields[0] + "'");
+                    }
+                } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+                    throw new IOException(name + ":" + lineNumber + ": malformed event '" + line + "'", e);
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            reader.close();
+        }
+    }
+
+    // The processes WorkloadEngine would run for config, replayed in
+    // simulated time so the runner never waits: only the events of live
+    // processes are kept.
+    public static Workload synthetic(WorkloadEngine.Config config) {
+        return new SyntheticWorkload(config);
+    }
+
+    private static class SyntheticWorkload extends Workload {
+        private final ProcessGenerator generator;
+        private final int touchesPerProcess;
+        private final double writeRatio;
+        private final PriorityQueue<Pending> pending; // next event of each live process
+        private boolean arriving; // the generator holds a process not yet started
+        private int started;
+
+        private static class Pending {
+            final int id;
+            final int pages; // the size in KB; the runner folds it into the real page count
+            final double step;
+            final Random random; // page touches
+            double time;
+            int touchesLeft;
+
+            Pending(int id, int pages, double time, double step, long touchSeed, int touchesLeft) {
+                this.id = id;
+                this.pages = pages;
+                this.time = time;
+                this.step = step;
+                this.random = new Random(touchSeed);
+                this.touchesLeft = touchesLeft;
+            }
+        }
+
+        SyntheticWorkload(WorkloadEngine.Config config) {
+            this.generator = new ProcessGenerator(config);
+            this.touchesPerProcess = config.getTouchesPerProcess();
+            this.writeRatio = config.getWriteRatio();
+            this.pending = new PriorityQueue<>(Comparator.comparingDouble(p -> p.time));
+            this.arriving = generator.next();
+        }
+
+        @Override
+        public boolean next(Event event) {
+            Pending head = pending.peek();
+            if (arriving && (head == null || generator.getArrival() <= head.time)) {
+                int id = started++;
+                int size = generator.getSize();
+                // Touches are spread evenly over the lifetime, the end one step after the last
+                double step = generator.getLifetime() / (touchesPerProcess + 1);
+                pending.add(new Pending(id, size, generator.getArrival() + step, step,
+                        generator.getTouchSeed(), touchesPerProcess));
+                arriving = generator.next();
+                event.set(EventType.START, id, size, 0, false);
+                return true;
+            }
+            if (head == null) {
+                return false;
+            }
+            pending.poll();
+            if (head.touchesLeft > 0) {
+                head.touchesLeft--;
+                head.time += head.step;
+                pending.add(head);
+                event.set(EventType.TOUCH, head.id, 0, head.random.nextInt(head.pages),
+                        head.random.nextDouble() < writeRatio);
+            } else {
+                event.set(EventType.END, head.id, 0, 0, false);
+            }
+            return true;
+        }
+    }
+}
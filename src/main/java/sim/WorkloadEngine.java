@@ -0,0 +1,217 @@
+package sim;
+
+import memory.FramePool;
+import memory.MemoryManager;
+import memory.Process;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+// Runs simulated processes against a MemoryManager, one virtual thread per
+// process. Processes arrive as a Poisson stream at the configured rate (or
+// all at once), allocate, touch their pages over an exponentially
+// distributed lifetime and exit. Allocation latency is measured per process
+// and reported as percentiles together with the aggregate throughput.
+//
+//   java sim.WorkloadEngine [processes] [arrivalsPerSecond] [meanLifetimeMillis] [PAGING|SEGMENTATION|BUDDY]
+public class WorkloadEngine {
+    private final MemoryManager memoryManager;
+    private final Config config;
+
+    public static class Config {
+        private int processCount = 10_000;
+        private double arrivalRate = 5_000; // processes per second; 0 = all at once
+        private double meanLifetimeMillis = 50;
+        private int minProcessSize = 16; // KB
+        private int maxProcessSize = 256; // KB
+        private int touchesPerProcess = 32;
+        private double writeRatio = 0.3;
+        private long seed = 42;
+
+        public Config processCount(int processCount) { this.processCount = processCount; return this; }
+        public Config arrivalRate(double arrivalRate) { this.arrivalRate = arrivalRate; return this; }
+        public Config meanLifetimeMillis(double meanLifetimeMillis) { this.meanLifetimeMillis = meanLifetimeMillis; return this; }
+        public Config processSize(int min, int max) { this.minProcessSize = min; this.maxProcessSize = max; return this; }
+        public Config touchesPerProcess(int touchesPerProcess) { this.touchesPerProcess = touchesPerProcess; return this; }
+        public Config writeRatio(double writeRatio) { this.writeRatio = writeRatio; return this; }
+        public Config seed(long seed) { this.seed = seed; return this; }
+
+        // Getters
+        public int getProcessCount() { return processCount; }
+        public double getArrivalRate() { return arrivalRate; }
+        public double getMeanLifetimeMillis() { return meanLifetimeMillis; }
+        public int getMinProcessSize() { return minProcessSize; }
+        public int getMaxProcessSize() { return maxProcessSize; }
+        public int getTouchesPerProcess() { return touchesPerProcess; }
+        public double getWriteRatio() { return writeRatio; }
+        public long getSeed() { return seed; }
+    }
+
+    public WorkloadEngine(MemoryManager memoryManager, Config config) {
+        this.memoryManager = memoryManager;
+        this.config = config;
+    }
+
+    public Result run() throws InterruptedException {
+        int count = config.getProcessCount();
+        AtomicLongArray latencies = new AtomicLongArray(count); // nanoseconds, -1 = failed
+        AtomicInteger live = new AtomicInteger();
+        AtomicInteger peakLive = new AtomicInteger();
+        AtomicLong touches = new AtomicLong();
+        AtomicLong missedTouches = new AtomicLong();
+
+        // Draw every arrival and lifetime up front so a seed replays the same workload
+        ProcessGenerator generator = new ProcessGenerator(config);
+        long[] arrivals = new long[count];
+        long[] lifetimes = new long[count];
+        int[] sizes = new int[count];
+        long[] touchSeeds = new long[count];
+        for (int i = 0; generator.next(); i++) {
+            arrivals[i] = (long) (generator.getArrival() * 1e9);
+            lifetimes[i] = (long) (generator.getLifetime() * 1e9);
+            sizes[i] = generator.getSize();
+            touchSeeds[i] = generator.getTouchSeed();
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < count; i++) {
+                long wait = start + arrivals[i] - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                int index = i;
+                executor.execute(() -> {
+                    peakLive.accumulateAndGet(live.incrementAndGet(), Math::max);
+                    try {
+                        runProcess(index, sizes[index], lifetimes[index], touchSeeds[index],
+                                latencies, touches, missedTouches);
+                    } finally {
+                        live.decrementAndGet();
+                    }
+                });
+            }
+        } // close() waits for every process to finish
+        long elapsed = System.nanoTime() - start;
+
+        long[] allocated = new long[count];
+        int succeeded = 0;
+        for (int i = 0; i < count; i++) {
+            long latency = latencies.get(i);
+            if (latency >= 0) {
+                allocated[succeeded++] = latency;
+            }
+        }
+        return new Result(count, succeeded, elapsed, Arrays.copyOf(allocated, succeeded),
+                touches.get(), missedTouches.get(), peakLive.get());
+    }
+
+    private void runProcess(int index, int size, long lifetimeNanos, long touchSeed, AtomicLongArray latencies,
+                            AtomicLong touches, AtomicLong missedTouches) {
+        Process process = memoryManager.createProcess("W" + index, size, 1);
+        long begin = System.nanoTime();
+        boolean allocated = memoryManager.allocateMemory(process);
+        latencies.set(index, allocated ? System.nanoTime() - begin : -1);
+        if (!allocated) {
+            memoryManager.terminateProcess(process.getProcessId());
+            return;
+        }
+
+        // Spread the page touches over the lifetime; outside paging memory
+        // every touch misses
+        int touchCount = config.getTouchesPerProcess();
+        int pages = process.getPagesNeeded(memoryManager.getPagingManager().getPageSize());
+        Random random = new Random(touchSeed);
+        long pause = lifetimeNanos / (touchCount + 1);
+        for (int t = 0; t < touchCount; t++) {
+            sleepNanos(pause);
+            boolean write = random.nextDouble() < config.getWriteRatio();
+            if (!memoryManager.accessProcessPage(process, random.nextInt(pages), write)) {
+                missedTouches.incrementAndGet();
+            }
+            touches.incrementAndGet();
+        }
+        sleepNanos(pause);
+        memoryManager.terminateProcess(process.getProcessId());
+    }
+
+    private static void sleepNanos(long nanos) {
+        long deadline = System.nanoTime() + nanos;
+        for (long left = nanos; left > 0; left = deadline - System.nanoTime()) {
+            LockSupport.parkNanos(left);
+        }
+    }
+
+    public static class Result {
+        private int processes;
+        private int allocated;
+        private long elapsedNanos;
+        private long[] allocationLatencies; // sorted, nanoseconds
+        private long touches;
+        private long missedTouches;
+        private int peakConcurrency;
+
+        public Result(int processes, int allocated, long elapsedNanos, long[] allocationLatencies,
+                      long touches, long missedTouches, int peakConcurrency) {
+            this.processes = processes;
+            this.allocated = allocated;
+            this.elapsedNanos = elapsedNanos;
+            this.allocationLatencies = allocationLatencies.clone();
+            Arrays.sort(this.allocationLatencies);
+            this.touches = touches;
+            this.missedTouches = missedTouches;
+            this.peakConcurrency = peakConcurrency;
+        }
+
+        // Getters
+        public int getProcesses() { return processes; }
+        public int getAllocated() { return allocated; }
+        public int getFailed() { return processes - allocated; }
+        public long getElapsedNanos() { return elapsedNanos; }
+        public long getTouches() { return touches; }
+        public long getMissedTouches() { return missedTouches; }
+        public int getPeakConcurrency() { return peakConcurrency; }
+        public double getProcessesPerSecond() { return processes / (elapsedNanos / 1e9); }
+        public double getAllocationsPerSecond() { return allocated / (elapsedNanos / 1e9); }
+
+        // Allocation latency at the given percentile (0-100), in nanoseconds
+        public long getLatencyPercentile(double percentile) {
+            if (allocationLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * allocationLatencies.length);
+            return allocationLatencies[Math.max(0, Math.min(allocationLatencies.length - 1, rank - 1))];
+        }
+
+        @Override
+        public String toString() {
+            return String.format("processes=%d allocated=%d failed=%d elapsed=%.2fs peakConcurrency=%d%n"
+                    + "throughput: %.0f processes/s, %.0f allocations/s%n"
+                    + "touches=%d missed=%d%n"
+                    + "allocation latency (us): p50=%.1f p90=%.1f p99=%.1f p99.9=%.1f max=%.1f",
+                    processes, allocated, getFailed(), elapsedNanos / 1e9, peakConcurrency,
+                    getProcessesPerSecond(), getAllocationsPerSecond(), touches, missedTouches,
+                    getLatencyPercentile(50) / 1e3, getLatencyPercentile(90) / 1e3,
+                    getLatencyPercentile(99) / 1e3, getLatencyPercentile(99.9) / 1e3,
+                    getLatencyPercentile(100) / 1e3);
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        Config config = new Config();
+        if (args.length > 0) config.processCount(Integer.parseInt(args[0]));
+        if (args.length > 1) config.arrivalRate(Double.parseDouble(args[1]));
+        if (args.length > 2) config.meanLifetimeMillis(Double.parseDouble(args[2]));
+
+        // Every process runs on its own thread, so cache frames per CPU
+        MemoryManager memoryManager = new MemoryManager(64 * 1024, 4, FramePool.DEFAULT_BATCH);
+        if (args.length > 3) {
+            memoryManager.setMemoryType(MemoryManager.MemoryType.valueOf(args[3].toUpperCase()));
+        }
+        System.out.println(new WorkloadEngine(memoryManager, config).run());
+    }
+}
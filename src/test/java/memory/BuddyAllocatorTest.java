@@ -0,0 +1,49 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BuddyAllocatorTest {
+    @Test
+    void takesTheLowestFreeBlockOfAnOrder() {
+        // 1 GB of 1 KB blocks: a million order-0 blocks, three summary levels
+        BuddyAllocator buddy = new BuddyAllocator(1 << 20, 1);
+        List<Integer> addresses = new ArrayList<>();
+        for (int i = 0; i < 100_000; i++) {
+            addresses.add(buddy.allocate(1, 1, "data"));
+        }
+        for (int i = 0; i < 100_000; i++) {
+            assertEquals(i, addresses.get(i));
+        }
+        buddy.free(70_000);
+        buddy.free(4_097);
+        assertEquals(4_097, buddy.allocate(1, 1, "data"));
+        assertEquals(70_000, buddy.allocate(1, 1, "data"));
+        assertEquals(100_000, buddy.allocate(1, 1, "data"));
+    }
+
+    @Test
+    void coalescesBackToOneBlock() {
+        BuddyAllocator buddy = new BuddyAllocator(4096, 1);
+        Random random = new Random(7);
+        List<Integer> live = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            if (live.isEmpty() || random.nextBoolean()) {
+                int address = buddy.allocate(1, 1 + random.nextInt(64), "data");
+                if (address >= 0) {
+                    live.add(address);
+                }
+            } else {
+                buddy.free(live.remove(random.nextInt(live.size())));
+            }
+        }
+        for (int address : live) {
+            buddy.free(address);
+        }
+        assertEquals(4096, buddy.getFreeMemory());
+        assertEquals(4096, buddy.getLargestFreeBlock());
+        assertEquals(0, buddy.allocate(1, 4096, "data"));
+    }
+}
@@ -0,0 +1,248 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+// Hammers one MemoryManager from many threads and, after every round, checks
+// that the managers agree with the processes: no frame is owned twice or by a
+// process that does not list it, segments tile memory without overlap and the
+// buddy layout covers memory exactly. Paging rounds alternate between
+// scattered and extent frame allocation.
+class ConcurrencyStressTest {
+    private static final int TOTAL_MEMORY = 4096; // KB, small so replacement kicks in
+    private static final int PAGE_SIZE = 4;
+    private static final int THREADS = 4;
+    private static final int OPS_PER_THREAD = 1500;
+
+    private MemoryManager memoryManager = new MemoryManager(TOTAL_MEMORY, PAGE_SIZE);
+    private final AtomicLong allocations = new AtomicLong();
+    private final List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    void scatteredPaging() throws InterruptedException {
+        runRounds(6, MemoryManager.MemoryType.PAGING, PagingManager.FrameAllocation.SCATTERED);
+    }
+
+    // With the frame cache the workload engine uses, frames parked in magazines count as free
+    @Test
+    void scatteredPagingWithFrameCache() throws InterruptedException {
+        memoryManager = new MemoryManager(TOTAL_MEMORY, PAGE_SIZE, FramePool.DEFAULT_BATCH);
+        runRounds(6, MemoryManager.MemoryType.PAGING, PagingManager.FrameAllocation.SCATTERED);
+    }
+
+    @Test
+    void extentPaging() throws InterruptedException {
+        runRounds(6, MemoryManager.MemoryType.PAGING, PagingManager.FrameAllocation.EXTENT);
+    }
+
+    @Test
+    void segmentation() throws InterruptedException {
+        runRounds(6, MemoryManager.MemoryType.SEGMENTATION, PagingManager.FrameAllocation.SCATTERED);
+    }
+
+    @Test
+    void buddy() throws InterruptedException {
+        runRounds(6, MemoryManager.MemoryType.BUDDY, PagingManager.FrameAllocation.SCATTERED);
+    }
+
+    // Memory type switches reallocate the processes left over from the round before
+    @Test
+    void switchingTypes() throws InterruptedException {
+        MemoryManager.MemoryType[] types = MemoryManager.MemoryType.values();
+        PagingManager.FrameAllocation[] frameAllocations = PagingManager.FrameAllocation.values();
+        for (int round = 0; round < 12; round++) {
+            runRounds(1, types[round % types.length], frameAllocations[round / types.length % frameAllocations.length]);
+        }
+    }
+
+    private void runRounds(int rounds, MemoryManager.MemoryType type, PagingManager.FrameAllocation frameAllocation)
+            throws InterruptedException {
+        for (int round = 0; round < rounds; round++) {
+            memoryManager.setFrameAllocation(frameAllocation);
+            memoryManager.setMemoryType(type);
+            runRound();
+            assertTrue(failures.isEmpty(), () -> "worker failed: " + failures.get(0));
+            List<String> problems = verify();
+            assertTrue(problems.isEmpty(), () -> "round " + memoryManager.getCurrentType() + ", "
+                    + memoryManager.getFrameAllocation() + " failed:\n  "
+                    + String.join("\n  ", problems.subList(0, Math.min(20, problems.size()))));
+        }
+        assertTrue(allocations.get() > 0, "no allocation succeeded");
+    }
+
+    private void runRound() throws InterruptedException {
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            Thread worker = new Thread(this::work, "stress-" + t);
+            worker.setUncaughtExceptionHandler((thread, e) -> failures.add(e));
+            workers.add(worker);
+            worker.start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+    }
+
+    private void work() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        PagingManager.ReplacementAlgorithm[] algorithms = PagingManager.ReplacementAlgorithm.values();
+        List<Process> owned = new ArrayList<>();
+        for (int op = 0; op < OPS_PER_THREAD; op++) {
+            int choice = random.nextInt(100);
+            if (choice < 45 || owned.isEmpty()) {
+                Process process = memoryManager.createProcess("stress", 1 + random.nextInt(TOTAL_MEMORY / 16), 1);
+                if (memoryManager.allocateMemory(process)) {
+                    allocations.incrementAndGet();
+                    owned.add(process);
+                } else {
+                    memoryManager.terminateProcess(process.getProcessId());
+                }
+            } else if (choice < 80) {
+                Process process = owned.remove(random.nextInt(owned.size()));
+                memoryManager.terminateProcess(process.getProcessId());
+            } else if (choice < 97) {
+                PagingManager pagingManager = memoryManager.getPagingManager();
+                pagingManager.accessPage(random.nextInt(pagingManager.getTotalPages()), random.nextBoolean());
+            } else if (choice < 98) {
+                memoryManager.getPagingManager().setReplacementAlgorithm(algorithms[random.nextInt(algorithms.length)]);
+            } else if (choice < 99 && random.nextInt(8) == 0) {
+                memoryManager.setFrameAllocation(random.nextBoolean()
+                        ? PagingManager.FrameAllocation.EXTENT : PagingManager.FrameAllocation.SCATTERED);
+            } else {
+                long handle = memoryManager.getSlabAllocator().allocate(1 + random.nextInt(8));
+                memoryManager.getSlabAllocator().free(handle);
+            }
+        }
+        // Leave a couple of processes for the next round's memory type switch
+        for (Process process : owned.subList(Math.min(2, owned.size()), owned.size())) {
+            memoryManager.terminateProcess(process.getProcessId());
+        }
+    }
+
+    // Cross-checks manager state against the processes; call while no worker runs
+    private List<String> verify() {
+        switch (memoryManager.getCurrentType()) {
+            case PAGING:
+                return verifyFrames();
+            case SEGMENTATION:
+                List<String> problems = verifyLayout(memoryManager.getSegmentationManager().getMemorySegments(),
+                        memoryManager.getSegmentationManager().getTotalMemory());
+                problems.addAll(verifyFreeStats(memoryManager.getSegmentationManager()));
+                return problems;
+            default:
+                return verifyLayout(memoryManager.getBuddyAllocator().getMemoryLayout(),
+                        memoryManager.getBuddyAllocator().getTotalMemory());
+        }
+    }
+
+    private List<String> verifyFrames() {
+        List<String> problems = new ArrayList<>();
+        PagingManager pagingManager = memoryManager.getPagingManager();
+        Map<Integer, Integer> owners = pagingManager.getPageOwners();
+        Map<Integer, Integer> listedBy = new HashMap<>();
+        for (Process process : memoryManager.getAllProcesses()) {
+            IntList pages = process.getAllocatedPages();
+            ExtentList extents = process.getAllocatedExtents();
+            List<Integer> frames = new ArrayList<>(process.getAllocatedPageCount());
+            for (int i = 0; i < pages.size(); i++) {
+                frames.add(pages.get(i));
+            }
+            for (int run = 0; run < extents.getRunCount(); run++) {
+                for (int i = 0; i < extents.getLength(run); i++) {
+                    frames.add(extents.getStart(run) + i);
+                }
+            }
+            for (int frame : frames) {
+                Integer previous = listedBy.put(frame, process.getProcessId());
+                if (previous != null) {
+                    problems.add("frame " + frame + " listed by processes " + previous
+                            + " and " + process.getProcessId());
+                }
+                Integer owner = owners.get(frame);
+                if (owner == null || owner != process.getProcessId()) {
+                    problems.add("frame " + frame + " listed by process " + process.getProcessId()
+                            + " but owned by " + owner);
+                }
+            }
+        }
+        for (Map.Entry<Integer, Integer> entry : owners.entrySet()) {
+            if (!listedBy.containsKey(entry.getKey())) {
+                problems.add("frame " + entry.getKey() + " owned by " + entry.getValue() + " but listed by no process");
+            }
+        }
+        int used = pagingManager.getTotalPages() - pagingManager.getFreePages();
+        if (used != owners.size()) {
+            problems.add(used + " frames in use but " + owners.size() + " have an owner");
+        }
+        if (pagingManager.getFrameAllocation() == PagingManager.FrameAllocation.EXTENT) {
+            problems.addAll(verifyFreeExtents(pagingManager));
+        }
+        return problems;
+    }
+
+    // The free-extent tree must hold exactly the maximal runs of free frames
+    private List<String> verifyFreeExtents(PagingManager pagingManager) {
+        boolean[] inUse = pagingManager.getPageTable();
+        int runs = 0, longest = 0;
+        for (int frame = 0, run = 0; frame <= inUse.length; frame++) {
+            if (frame < inUse.length && !inUse[frame]) {
+                run++;
+            } else if (run > 0) {
+                runs++;
+                longest = Math.max(longest, run);
+                run = 0;
+            }
+        }
+        if (runs != pagingManager.getFreeExtentCount() || longest != pagingManager.getLongestFreeExtent()) {
+            return List.of("free extents " + pagingManager.getFreeExtentCount() + "/"
+                    + pagingManager.getLongestFreeExtent() + " but frames have " + runs + "/" + longest);
+        }
+        return new ArrayList<>();
+    }
+
+    // The incrementally kept free statistics must match a recount of the layout
+    private List<String> verifyFreeStats(SegmentationManager segmentationManager) {
+        List<String> problems = new ArrayList<>();
+        int free = 0, count = 0, largest = 0;
+        List<SegmentationManager.MemorySegment> layout = segmentationManager.getMemorySegments();
+        for (SegmentationManager.MemorySegment segment : layout) {
+            if (!segment.isAllocated()) {
+                free += segment.getSize();
+                count++;
+                largest = Math.max(largest, segment.getSize());
+            }
+        }
+        if (free != segmentationManager.getFreeMemory() || count != segmentationManager.getFreeBlockCount()
+                || largest != segmentationManager.getLargestFreeBlock()
+                || layout.size() != segmentationManager.getSegmentCount()) {
+            problems.add("free stats " + segmentationManager.getFreeMemory() + "/"
+                    + segmentationManager.getFreeBlockCount() + "/" + segmentationManager.getLargestFreeBlock()
+                    + " but layout has " + free + "/" + count + "/" + largest);
+        }
+        return problems;
+    }
+
+    private List<String> verifyLayout(List<SegmentationManager.MemorySegment> layout, int totalMemory) {
+        List<String> problems = new ArrayList<>();
+        int expected = 0;
+        for (SegmentationManager.MemorySegment segment : layout) {
+            if (segment.getStartAddress() != expected) {
+                problems.add("segment at " + segment.getStartAddress() + " expected at " + expected);
+            }
+            expected = segment.getStartAddress() + segment.getSize();
+            if (segment.isAllocated() && segment.getProcessId() > 0
+                    && memoryManager.findProcess(segment.getProcessId()) == null) {
+                problems.add("segment at " + segment.getStartAddress() + " owned by terminated process "
+                        + segment.getProcessId());
+            }
+        }
+        if (expected != totalMemory) {
+            problems.add("layout ends at " + expected + " instead of " + totalMemory);
+        }
+        return problems;
+    }
+}
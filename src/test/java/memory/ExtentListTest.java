@@ -0,0 +1,77 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExtentListTest {
+    @Test
+    void mergesAndSplitsRuns() {
+        ExtentList extents = new ExtentList();
+        extents.add(10, 5);
+        extents.add(20, 5);
+        extents.add(15, 5); // joins both neighbours
+        assertEquals("[10-24]", extents.toString());
+        assertEquals(1, extents.getRunCount());
+
+        assertTrue(extents.remove(17));
+        assertFalse(extents.remove(17));
+        assertEquals("[10-16, 18-24]", extents.toString());
+        assertEquals(14, extents.size());
+        assertEquals(18, extents.get(7));
+        assertEquals(18, extents.getStart(1));
+        assertEquals(7, extents.getLength(1));
+    }
+
+    @Test
+    void matchesASortedSetUnderRandomChurn() {
+        Random random = new Random(42);
+        ExtentList extents = new ExtentList();
+        TreeSet<Integer> expected = new TreeSet<>();
+        for (int step = 0; step < 20_000; step++) {
+            int value = random.nextInt(2_000);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), extents.remove(value));
+            } else {
+                int length = 1;
+                while (length < 8 && !expected.contains(value + length) && random.nextBoolean()) {
+                    length++;
+                }
+                if (!expected.contains(value)) {
+                    extents.add(value, length);
+                    for (int i = 0; i < length; i++) {
+                        expected.add(value + i);
+                    }
+                }
+            }
+            if (step % 500 == 0) {
+                assertSameValues(expected, extents);
+            }
+        }
+        assertSameValues(expected, extents);
+        extents.clear();
+        assertTrue(extents.isEmpty());
+        assertEquals(0, extents.getRunCount());
+    }
+
+    private static void assertSameValues(TreeSet<Integer> expected, ExtentList extents) {
+        assertEquals(expected.size(), extents.size());
+        List<Integer> values = new ArrayList<>(expected);
+        for (int i = 0; i < values.size(); i++) {
+            assertEquals(values.get(i), extents.get(i));
+        }
+        int previousEnd = Integer.MIN_VALUE;
+        for (int run = 0; run < extents.getRunCount(); run++) {
+            assertTrue(extents.getStart(run) > previousEnd, "runs must be merged and sorted");
+            previousEnd = extents.getStart(run) + extents.getLength(run);
+        }
+        for (int value = 0; value < 2_010; value += 7) {
+            assertEquals(expected.contains(value), extents.contains(value));
+        }
+    }
+}
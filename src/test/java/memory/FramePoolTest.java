@@ -0,0 +1,56 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FramePoolTest {
+    private static final int FRAMES = 4096;
+
+    @Test
+    void racingFreesParkAFrameOnce() throws InterruptedException {
+        FramePool pool = new FramePool(FRAMES, FramePool.DEFAULT_BATCH);
+        assertTrue(pool.getMagazineCount() > 0);
+        for (int round = 0; round < 200; round++) {
+            int frame = pool.allocate(1);
+            CountDownLatch start = new CountDownLatch(1);
+            Thread[] freers = new Thread[4];
+            for (int t = 0; t < freers.length; t++) {
+                freers[t] = new Thread(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    pool.free(frame);
+                });
+                freers[t].start();
+            }
+            start.countDown();
+            for (Thread freer : freers) {
+                freer.join();
+            }
+            assertEquals(FRAMES, pool.getFreeCount());
+        }
+    }
+
+    @Test
+    void magazinesNeverHandOutAFrameTwice() {
+        FramePool pool = new FramePool(FRAMES, FramePool.DEFAULT_BATCH);
+        Set<Integer> held = new HashSet<>();
+        for (int i = 0; i < FRAMES; i++) {
+            assertTrue(held.add(pool.allocate(1)));
+        }
+        assertEquals(FramePool.NO_FRAME, pool.allocate(1));
+        for (int frame : held) {
+            pool.free(frame);
+        }
+        assertEquals(FRAMES, pool.getFreeCount());
+        pool.drain();
+        assertEquals(0, pool.getCachedCount());
+    }
+}
@@ -0,0 +1,74 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LatencyHistogramTest {
+    @Test
+    void valuesRoundTripAcrossPowerOfTwoBoundaries() {
+        long[] values = {0, 1, 63, 64, 65, 127, 128, 129, 1L << 32, (1L << 32) - 1, Long.MAX_VALUE};
+        for (long value : values) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            long representative = LatencyHistogram.valueOf(bucket);
+            assertEquals(bucket, LatencyHistogram.bucketOf(representative), "bucket of " + value);
+            assertTrue(Math.abs(representative - value) <= value / 32, value + " came back as " + representative);
+        }
+
+        // Exact below 64, then 32 buckets per power of two
+        assertEquals(63, LatencyHistogram.bucketOf(63));
+        assertEquals(63, LatencyHistogram.valueOf(63));
+        assertEquals(64, LatencyHistogram.bucketOf(64));
+        assertEquals(LatencyHistogram.bucketOf(64), LatencyHistogram.bucketOf(65));
+        assertEquals(LatencyHistogram.bucketOf(126), LatencyHistogram.bucketOf(127));
+        assertEquals(LatencyHistogram.bucketOf(127) + 1, LatencyHistogram.bucketOf(128));
+        assertTrue(LatencyHistogram.valueOf(LatencyHistogram.bucketOf(Long.MAX_VALUE)) > 0);
+    }
+
+    @Test
+    void bucketsNeverGoBackwards() {
+        int previous = 0;
+        for (long value = 0; value < 1 << 16; value++) {
+            int bucket = LatencyHistogram.bucketOf(value);
+            assertTrue(bucket == previous || bucket == previous + 1, "bucket jumped at " + value);
+            previous = bucket;
+        }
+    }
+
+    @Test
+    void percentilesOfAKnownDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (long value = 1; value <= 1000; value++) {
+            histogram.record(value * 1000);
+        }
+        LatencyHistogram.Snapshot snapshot = histogram.snapshot();
+
+        assertEquals(1000, snapshot.getCount());
+        assertEquals(1_000_000, snapshot.getMax());
+        assertEquals(500_500, snapshot.getMean(), 1e-9);
+        assertWithin(500_000, snapshot.getP50());
+        assertWithin(900_000, snapshot.getP90());
+        assertWithin(990_000, snapshot.getP99());
+        assertWithin(999_000, snapshot.getP999());
+        assertEquals(1_000_000, snapshot.getValueAtPercentile(100));
+    }
+
+    @Test
+    void emptyAndResetHistogramsReportZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        assertEquals(0, histogram.snapshot().getP99());
+        histogram.record(-5); // clamped to zero
+        histogram.record(42);
+        assertEquals(2, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getValueAtPercentile(50));
+
+        histogram.reset();
+        assertEquals(0, histogram.snapshot().getCount());
+        assertEquals(0, histogram.snapshot().getMax());
+    }
+
+    // A bucket is about 3% wide, so its middle is within that of any value in it
+    private static void assertWithin(long expected, long actual) {
+        assertTrue(Math.abs(actual - expected) <= expected / 32, "expected about " + expected + " but was " + actual);
+    }
+}
@@ -0,0 +1,72 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MemoryMetricsTest {
+    @Test
+    void countsFaultsAndEvictionsOfAPagingRun() {
+        MemoryMetrics metrics = new MemoryMetrics();
+        PagingManager pagingManager = new PagingManager(16, 4); // four frames
+        pagingManager.setMetrics(metrics);
+        Process process = new Process(1, "A", 64, 1);
+
+        // Four faults fill memory, then a hit
+        for (int page = 0; page < 4; page++) {
+            assertFalse(pagingManager.referencePage(process, page, false));
+        }
+        assertTrue(pagingManager.referencePage(process, 0, false));
+        // Each miss now evicts, counted against the algorithm in use
+        assertFalse(pagingManager.referencePage(process, 4, false));
+        pagingManager.setReplacementAlgorithm(PagingManager.ReplacementAlgorithm.LRU);
+        assertFalse(pagingManager.referencePage(process, 5, false));
+        assertFalse(pagingManager.referencePage(process, 6, true));
+        // A frame access is counted as an access but not as a reference
+        pagingManager.accessPage(0);
+
+        MemoryMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(8, snapshot.getReferences());
+        assertEquals(7, snapshot.getPageFaults());
+        assertEquals(9, snapshot.getPageAccesses());
+        assertEquals(7.0 / 8, snapshot.getFaultRate(), 1e-9);
+        assertEquals(1, snapshot.getEvictions(PagingManager.ReplacementAlgorithm.FIFO));
+        assertEquals(2, snapshot.getEvictions(PagingManager.ReplacementAlgorithm.LRU));
+        assertEquals(0, snapshot.getEvictions(PagingManager.ReplacementAlgorithm.CLOCK));
+        assertEquals(3, snapshot.getEvictions());
+        assertEquals(9, snapshot.getAccessLatency().getCount());
+    }
+
+    @Test
+    void countsCompactionBytes() {
+        MemoryMetrics metrics = new MemoryMetrics();
+        SegmentationManager segmentationManager = new SegmentationManager(1024);
+        segmentationManager.setMetrics(metrics);
+        int first = segmentationManager.allocateSegment(1, 100, "DATA");
+        segmentationManager.allocateSegment(2, 50, "DATA");
+        segmentationManager.allocateSegment(3, 70, "DATA");
+        segmentationManager.freeSegment(1, first);
+
+        assertEquals(120, segmentationManager.compactStep(200));
+        MemoryMetrics.Snapshot snapshot = metrics.snapshot();
+        assertEquals(1, snapshot.getCompactions());
+        assertEquals(120, snapshot.getCompactionBytesMoved());
+
+        metrics.reset();
+        assertEquals(0, metrics.snapshot().getCompactionBytesMoved());
+        assertEquals(0, metrics.snapshot().getEvictions());
+    }
+
+    @Test
+    void countsAllocationsThroughTheMemoryManager() {
+        MemoryManager memoryManager = new MemoryManager(16, 4);
+        Process fits = memoryManager.createProcess("A", 8, 1);
+        assertTrue(memoryManager.allocateMemory(fits));
+        memoryManager.terminateProcess(fits.getProcessId());
+
+        MemoryMetrics.Snapshot snapshot = memoryManager.getMetrics().snapshot();
+        assertEquals(1, snapshot.getAllocations());
+        assertEquals(1, snapshot.getDeallocations());
+        assertEquals(1, snapshot.getAllocateLatency().getCount());
+    }
+}
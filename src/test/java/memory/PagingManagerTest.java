@@ -0,0 +1,76 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PagingManagerTest {
+    // Four 4 KB frames, all held by one process
+    private PagingManager fullMemory(Process owner) {
+        PagingManager pagingManager = new PagingManager(16, 4);
+        assertTrue(pagingManager.allocatePages(owner));
+        return pagingManager;
+    }
+
+    @Test
+    void optimalEvictsThePageUsedFarthestAhead() {
+        Process owner = new Process(1, "A", 16, 1);
+        PagingManager pagingManager = fullMemory(owner);
+        pagingManager.setReplacementAlgorithm(PagingManager.ReplacementAlgorithm.OPTIMAL);
+        pagingManager.setReferenceString(new int[] {0, 1, 2, 3, 2, 0, 1, 0});
+        for (int frame = 0; frame < 4; frame++) {
+            pagingManager.accessPage(frame);
+        }
+        // Frame 3 is never referenced again
+        assertTrue(pagingManager.allocatePages(new Process(2, "B", 4, 1)));
+        assertEquals(2, pagingManager.getPageOwners().get(3));
+
+        // Selecting keeps the candidates on the heap, so the same frame is found again
+        assertTrue(pagingManager.allocatePages(new Process(3, "C", 4, 1)));
+        assertEquals(3, pagingManager.getPageOwners().get(3));
+        assertEquals(1, pagingManager.getPageOwners().get(0));
+        assertEquals(1, pagingManager.getPageOwners().get(1));
+        assertEquals(1, pagingManager.getPageOwners().get(2));
+    }
+
+    @Test
+    void evictsAcrossFrameAllocationSwitches() {
+        Process first = new Process(1, "A", 8, 1);
+        PagingManager pagingManager = new PagingManager(16, 4);
+        assertTrue(pagingManager.allocatePages(first)); // scattered: frames 0 and 1 in the page list
+        pagingManager.setFrameAllocation(PagingManager.FrameAllocation.EXTENT);
+        Process second = new Process(2, "B", 16, 1);
+        assertTrue(pagingManager.allocatePages(second)); // two free frames, then A's two by eviction
+        assertEquals(0, first.getAllocatedPageCount());
+        assertEquals(4, second.getAllocatedPageCount());
+
+        pagingManager.setFrameAllocation(PagingManager.FrameAllocation.SCATTERED);
+        Process third = new Process(3, "C", 12, 1);
+        assertTrue(pagingManager.allocatePages(third)); // evicts from B's extents
+        assertEquals(1, second.getAllocatedPageCount());
+        assertEquals(3, third.getAllocatedPageCount());
+        Process fourth = new Process(4, "D", 16, 1);
+        assertTrue(pagingManager.allocatePages(fourth)); // evicts from C's page list too
+        assertEquals(0, second.getAllocatedPageCount() + third.getAllocatedPageCount());
+        assertEquals(4, fourth.getAllocatedPageCount());
+    }
+
+    @Test
+    void countsPagesThePageTableCannotHold() {
+        PagingManager pagingManager = new PagingManager(16, 4);
+        pagingManager.setPageTableType(PagingManager.PageTableType.TWO_LEVEL);
+        Process process = new Process(1, "T", 0, 1);
+        long inside = (1L << 36) - 1; // top page of the 48-bit space
+        long outside = 1L << 40;
+        pagingManager.referencePage(process, inside, false);
+        pagingManager.referencePage(process, outside, false);
+
+        assertEquals(1, pagingManager.getUntranslatedMappings());
+        assertNotEquals(PageTable.UNMAPPED, pagingManager.translate(1, inside));
+        assertEquals(PageTable.UNMAPPED, pagingManager.translate(1, outside));
+
+        // Reselecting the table recounts
+        pagingManager.setPageTableType(PagingManager.PageTableType.FOUR_LEVEL);
+        assertEquals(1, pagingManager.getUntranslatedMappings());
+    }
+}
@@ -0,0 +1,51 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProcessRegistryTest {
+    @Test
+    void firstActiveMatchesTheHeadOfTheSortedList() {
+        ProcessRegistry registry = new ProcessRegistry();
+        int[] ids = {42, 7, 19, 3, 88, 11, 5, 64, 23, 1};
+        for (int id : ids) {
+            Process process = new Process(id, "P" + id, 16, 1);
+            process.setActive(true);
+            registry.add(process);
+        }
+        registry.find(3).setActive(false);
+
+        List<Process> expected = new ArrayList<>(registry.active().subList(0, 5));
+        assertEquals(expected, registry.firstActive(5));
+        assertEquals(registry.active(), registry.firstActive(100));
+        assertTrue(registry.firstActive(0).isEmpty());
+    }
+
+    @Test
+    void activeStaysInIdOrderAsProcessesComeAndGo() {
+        ProcessRegistry registry = new ProcessRegistry();
+        for (int id : new int[]{9, 2, 7, 4, 1}) {
+            registry.add(new Process(id, "P" + id, 16, 1));
+        }
+        registry.find(7).setActive(false);
+        registry.remove(2);
+        registry.add(new Process(5, "P5", 16, 1));
+        registry.find(7).setActive(true);
+
+        List<Integer> ids = new ArrayList<>();
+        for (Process process : registry.active()) {
+            ids.add(process.getProcessId());
+        }
+        assertEquals(List.of(1, 4, 5, 7, 9), ids);
+        assertEquals(5, registry.activeCount());
+
+        // A process no longer in the registry does not report back
+        Process removed = registry.remove(4);
+        removed.setActive(false);
+        assertEquals(4, registry.activeCount());
+    }
+}
@@ -0,0 +1,47 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RadixPageTableTest {
+    // 48-bit addresses with 4 KB pages leave 36 bits of virtual page number
+    private static final int VIRTUAL_PAGE_BITS = 36;
+
+    @Test
+    void levelsSplitTheWholePageNumber() {
+        RadixPageTable twoLevel = new RadixPageTable(2, VIRTUAL_PAGE_BITS);
+        assertEquals(18, twoLevel.getBitsPerLevel());
+        twoLevel.map(1, 5, 7);
+        assertEquals(2L * (1 << 18) * 8, twoLevel.getTableBytes());
+        assertEquals(9, new RadixPageTable(4, VIRTUAL_PAGE_BITS).getBitsPerLevel());
+        assertThrows(IllegalArgumentException.class, () -> new RadixPageTable(2, 2 * RadixPageTable.MAX_BITS_PER_LEVEL + 1));
+    }
+
+    @Test
+    void twoLevelsReachTheTopOfTheSpace() {
+        RadixPageTable twoLevel = new RadixPageTable(2, VIRTUAL_PAGE_BITS);
+        long highest = (1L << VIRTUAL_PAGE_BITS) - 1;
+        twoLevel.map(1, 5, 7);
+        twoLevel.map(1, 5 + (1L << 20), 8); // aliased with page 5 when levels were capped at 10 bits
+        twoLevel.map(1, highest, 9);
+        assertEquals(7, twoLevel.lookup(1, 5));
+        assertEquals(8, twoLevel.lookup(1, 5 + (1L << 20)));
+        assertEquals(9, twoLevel.lookup(1, highest));
+        assertEquals(2, twoLevel.getLastWalkDepth());
+        assertEquals(3, twoLevel.getMappedPages());
+    }
+
+    @Test
+    void pagesOutsideTheSpaceAreRejectedNotAliased() {
+        RadixPageTable fourLevel = new RadixPageTable(4, VIRTUAL_PAGE_BITS);
+        long outside = 5 + (1L << VIRTUAL_PAGE_BITS);
+        fourLevel.map(1, 5, 7);
+        assertFalse(fourLevel.covers(outside));
+        assertThrows(IllegalArgumentException.class, () -> fourLevel.map(1, outside, 8));
+        assertEquals(PageTable.UNMAPPED, fourLevel.lookup(1, outside));
+        fourLevel.unmap(1, outside);
+        assertEquals(7, fourLevel.lookup(1, 5));
+        assertEquals(1, fourLevel.getMappedPages());
+    }
+}
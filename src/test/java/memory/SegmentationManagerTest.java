@@ -0,0 +1,64 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentationManagerTest {
+    @Test
+    void compactStepLeavesSegmentsLargerThanTheBudget() {
+        SegmentationManager segmentationManager = new SegmentationManager(1024);
+        int first = segmentationManager.allocateSegment(1, 100, "DATA");
+        int large = segmentationManager.allocateSegment(2, 400, "DATA");
+        int middle = segmentationManager.allocateSegment(3, 50, "DATA");
+        segmentationManager.allocateSegment(4, 50, "DATA");
+        segmentationManager.freeSegment(1, first);
+        segmentationManager.freeSegment(3, middle);
+
+        assertEquals(50, segmentationManager.compactStep(200));
+        assertEquals(large, segmentationManager.getProcessSegments().get(2).get(0).getStartAddress());
+        assertEquals(middle, segmentationManager.getProcessSegments().get(4).get(0).getStartAddress());
+    }
+
+    @Test
+    void eachAllocationMovesAtMostOneStep() {
+        SegmentationManager segmentationManager = new SegmentationManager(1000);
+        int[] starts = new int[10];
+        for (int i = 0; i < starts.length; i++) {
+            starts[i] = segmentationManager.allocateSegment(i, 50, "DATA");
+        }
+        for (int i = 0; i < starts.length; i += 2) {
+            segmentationManager.freeSegment(i, starts[i]);
+        }
+        segmentationManager.setCompactionStepLimit(60);
+
+        // 250 bytes have to move before 700 fit; each call may move only one step
+        int attempts = 0;
+        int start = -1;
+        while (start < 0 && attempts < 10) {
+            long before = segmentationManager.getTotalBytesMoved();
+            start = segmentationManager.allocateSegment(99, 700, "DATA");
+            assertTrue(segmentationManager.getTotalBytesMoved() - before <= 60);
+            attempts++;
+        }
+        assertTrue(start >= 0);
+        assertEquals(5, attempts);
+        assertEquals(250, segmentationManager.getTotalBytesMoved());
+    }
+
+    @Test
+    void allocationFailsRatherThanMovingSegmentsLargerThanAStep() {
+        SegmentationManager segmentationManager = new SegmentationManager(1024);
+        int first = segmentationManager.allocateSegment(1, 100, "DATA");
+        segmentationManager.allocateSegment(2, 400, "DATA");
+        segmentationManager.setCompactionStepLimit(200);
+
+        segmentationManager.freeSegment(1, first);
+        assertEquals(-1, segmentationManager.allocateSegment(3, 600, "DATA"));
+        assertEquals(0, segmentationManager.getTotalBytesMoved());
+
+        // Without a step limit the compaction policy moves it
+        segmentationManager.setCompactionStepLimit(0);
+        assertTrue(segmentationManager.allocateSegment(3, 600, "DATA") >= 0);
+    }
+}
@@ -0,0 +1,35 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlabAllocatorTest {
+    @Test
+    void staleHandleDoesNotFreeTheSlabThatReusedItsId() {
+        SegmentationManager segmentationManager = new SegmentationManager(1024);
+        SlabAllocator slabs = new SlabAllocator(segmentationManager, 64);
+        long stale = slabs.allocate(8);
+        slabs.free(stale);
+        slabs.shrink(); // the slab goes back and its id is free for reuse
+
+        long fresh = slabs.allocate(8);
+        assertNotEquals(stale, fresh);
+        assertEquals(-1, slabs.getAddress(stale));
+        slabs.free(stale);
+        assertEquals(1, slabs.getCacheStats().get(0).getObjectsInUse());
+        assertTrue(slabs.getAddress(fresh) >= 0);
+    }
+
+    @Test
+    void handlesSurviveCompaction() {
+        SegmentationManager segmentationManager = new SegmentationManager(1024);
+        SlabAllocator slabs = new SlabAllocator(segmentationManager, 64);
+        int gap = segmentationManager.allocateSegment(99, 128, "DATA");
+        long handle = slabs.allocate(16);
+        int before = slabs.getAddress(handle);
+        segmentationManager.freeSegment(99, gap);
+        segmentationManager.compact(SegmentationManager.CompactionPolicy.FULL, 0);
+        assertTrue(slabs.getAddress(handle) < before);
+    }
+}
@@ -0,0 +1,52 @@
+package memory;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TlsfPlacementTest {
+    @Test
+    void findsABlockInTheRequestsOwnBin() {
+        TlsfPlacement placement = new TlsfPlacement();
+        SegmentationManager.MemorySegment block = new SegmentationManager.MemorySegment(0, 33 * 1024);
+        placement.blockAdded(block);
+
+        assertSame(block, placement.select(33 * 1024));
+        assertSame(block, placement.select(33 * 1024 - 100));
+        assertNull(placement.select(33 * 1024 + 1));
+    }
+
+    @Test
+    void probesOnlyTheHeadOfTheRequestsOwnBin() {
+        TlsfPlacement placement = new TlsfPlacement();
+        SegmentationManager.MemorySegment fits = new SegmentationManager.MemorySegment(0, 33 * 1024);
+        placement.blockAdded(fits);
+        // Blocks are pushed on the head of their bin, so these are probed first
+        for (int i = 1; i <= 4; i++) {
+            placement.blockAdded(new SegmentationManager.MemorySegment(i * 40 * 1024, 32 * 1024));
+        }
+
+        assertNull(placement.select(33 * 1024));
+        assertNotNull(placement.select(32 * 1024));
+    }
+
+    @Test
+    void prefersALargerBinThatAlwaysFits() {
+        TlsfPlacement placement = new TlsfPlacement();
+        SegmentationManager.MemorySegment exact = new SegmentationManager.MemorySegment(0, 33 * 1024);
+        SegmentationManager.MemorySegment larger = new SegmentationManager.MemorySegment(40 * 1024, 64 * 1024);
+        placement.blockAdded(exact);
+        placement.blockAdded(larger);
+
+        assertSame(larger, placement.select(33 * 1024));
+        placement.blockRemoved(larger);
+        assertSame(exact, placement.select(33 * 1024));
+    }
+
+    @Test
+    void allocatesThroughTheManager() {
+        SegmentationManager segmentationManager = new SegmentationManager(33 * 1024);
+        segmentationManager.setPlacementPolicy(SegmentationManager.PlacementPolicy.TLSF);
+        assertEquals(0, segmentationManager.allocateSegment(1, 33 * 1024, "DATA"));
+    }
+}
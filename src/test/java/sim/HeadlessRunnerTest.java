@@ -0,0 +1,27 @@
+package sim;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HeadlessRunnerTest {
+    @Test
+    void escapesStringValues() throws Exception {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("name", "a \"quoted\", \\ name\n");
+        row.put("count", 3);
+
+        StringWriter json = new StringWriter();
+        HeadlessRunner.write(List.of(row), "json", json);
+        assertTrue(json.toString().contains("{\"name\": \"a \\\"quoted\\\", \\\\ name\\n\", \"count\": 3}"));
+
+        StringWriter csv = new StringWriter();
+        HeadlessRunner.write(List.of(row), "csv", csv);
+        assertTrue(csv.toString().contains("\"a \"\"quoted\"\", \\ name\n\",3"));
+    }
+}
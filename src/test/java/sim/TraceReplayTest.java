@@ -0,0 +1,40 @@
+package sim;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TraceReplayTest {
+    @TempDir
+    Path directory;
+
+    @Test
+    void acceptsAddressesWithTheTopBitSet() throws IOException {
+        Path trace = directory.resolve("kernel.txt");
+        Files.writeString(trace, String.join("\n",
+                " L ffffffff81000000,8",
+                " S ffffffff81000008,8",
+                "0xffffffffffffffff",
+                "W 1 7fff0000",
+                ""));
+        TraceReplay.Result result = new TraceReplay(new SimulationConfig().totalMemory(64).pageSize(4))
+                .replay(trace, TraceReplay.Format.TEXT);
+        assertEquals(4, result.getReferences());
+        assertEquals(2, result.getWrites());
+        assertEquals(3, result.getFaults()); // the second reference hits the first one's page
+    }
+
+    @Test
+    void rejectsTokensThatAreNotHex() throws IOException {
+        Path trace = directory.resolve("bad.txt");
+        Files.writeString(trace, "L 12zz\n");
+        IOException error = assertThrows(IOException.class,
+                () -> new TraceReplay(new SimulationConfig()).replay(trace, TraceReplay.Format.TEXT));
+        assertTrue(error.getMessage().startsWith("malformed trace line"));
+    }
+}
@@ -0,0 +1,36 @@
+package sim;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadTest {
+    @Test
+    void syntheticWorkloadStartsTheGeneratorsProcessesInOrder() throws Exception {
+        WorkloadEngine.Config config = new WorkloadEngine.Config().processCount(200).touchesPerProcess(4);
+        ProcessGenerator generator = new ProcessGenerator(config);
+        Workload.Event event = new Workload.Event();
+        int starts = 0, touches = 0, ends = 0;
+        try (Workload workload = Workload.synthetic(config)) {
+            while (workload.next(event)) {
+                switch (event.getType()) {
+                    case START:
+                        assertTrue(generator.next());
+                        assertEquals(starts++, event.getId());
+                        assertEquals(generator.getSize(), event.getSize());
+                        break;
+                    case TOUCH:
+                        touches++;
+                        break;
+                    case END:
+                        ends++;
+                        break;
+                }
+            }
+        }
+        assertFalse(generator.next());
+        assertEquals(200, starts);
+        assertEquals(200 * 4, touches);
+        assertEquals(200, ends);
+    }
+}